@@ -0,0 +1,83 @@
+package com.unboxy.gamemanagerservice.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.unboxy.gamemanagerservice.utils.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived totals of visible games, globally and per user, used when a search only counted up to its
+ * track_total_hits threshold. Local creates and deletes adjust cached totals in place without extending their lifetime,
+ * so writes on other nodes are picked up at the latest after the TTL.
+ */
+@Component
+public class GameCountCache {
+    private static final String ALL_GAMES = "*";
+    private static final String USER_PREFIX = "user:";
+
+    private final Cache<String, AtomicLong> counts;
+    private final SingleFlight<String, Long> loads = new SingleFlight<>();
+
+    public GameCountCache(@Value("${games.countCache.ttlSeconds:30}") long ttlSeconds,
+                          @Value("${games.countCache.maxSize:10000}") long maxSize) {
+        this.counts = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Mono<Long> getTotal(Supplier<Mono<Long>> loader) {
+        return get(ALL_GAMES, loader);
+    }
+
+    public Mono<Long> getUserTotal(String userId, Supplier<Mono<Long>> loader) {
+        return get(USER_PREFIX + userId, loader);
+    }
+
+    public void putTotal(long count) {
+        counts.put(ALL_GAMES, new AtomicLong(count));
+    }
+
+    public void putUserTotal(String userId, long count) {
+        counts.put(USER_PREFIX + userId, new AtomicLong(count));
+    }
+
+    public void onCreated(String userId) {
+        adjustTotals(userId, 1);
+    }
+
+    public void onDeleted(String userId) {
+        adjustTotals(userId, -1);
+    }
+
+    private Mono<Long> get(String key, Supplier<Mono<Long>> loader) {
+        return Mono.defer(() -> {
+            AtomicLong cached = counts.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached.get());
+            }
+            return loads.execute(key, () -> loader.get()
+                    .doOnNext(count -> counts.put(key, new AtomicLong(count))));
+        });
+    }
+
+    private void adjustTotals(String userId, long delta) {
+        adjust(ALL_GAMES, delta);
+        if (userId != null) {
+            adjust(USER_PREFIX + userId, delta);
+        }
+    }
+
+    private void adjust(String key, long delta) {
+        AtomicLong cached = counts.getIfPresent(key);
+        if (cached != null) {
+            cached.updateAndGet(count -> Math.max(0, count + delta));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.unboxy.gamemanagerservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.unboxy.gamemanagerservice.model.GameGenerationMetadata;
+import com.unboxy.gamemanagerservice.utils.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of public game documents. Unknown ids are remembered for a shorter time than found ones, concurrent
+ * misses share one load, and callers always get their own copy so they can modify it freely.
+ * Entries are dropped by local writes and, for writes on other nodes, by {@code GameMetadataCacheSyncService}.
+ */
+@Component
+public class GameMetadataCache {
+    private final Cache<String, GameGenerationMetadata> entries;
+    private final Cache<String, Boolean> missing;
+    private final SingleFlight<String, Optional<GameGenerationMetadata>> loads = new SingleFlight<>();
+    private final ObjectMapper objectMapper;
+
+    // Bumped by every invalidation; a load that raced with one is returned but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public GameMetadataCache(ObjectMapper objectMapper,
+                             @Value("${games.metadataCache.ttlSeconds:60}") long ttlSeconds,
+                             @Value("${games.metadataCache.negativeTtlSeconds:10}") long negativeTtlSeconds,
+                             @Value("${games.metadataCache.maxSize:10000}") long maxSize) {
+        this.objectMapper = objectMapper;
+        this.entries = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+        this.missing = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Mono<GameGenerationMetadata> get(String id, Supplier<Mono<GameGenerationMetadata>> loader) {
+        return Mono.defer(() -> {
+            if (missing.getIfPresent(id) != null) {
+                return Mono.empty();
+            }
+            GameGenerationMetadata cached = entries.getIfPresent(id);
+            if (cached != null) {
+                return Mono.just(copy(cached));
+            }
+
+            return loads.execute(id, () -> load(id, loader))
+                    .flatMap(loaded -> Mono.justOrEmpty(loaded.map(this::copy)));
+        });
+    }
+
+    public void invalidate(String id) {
+        invalidations.incrementAndGet();
+        entries.invalidate(id);
+        missing.invalidate(id);
+    }
+
+    public void invalidateAll(Collection<String> ids) {
+        invalidations.incrementAndGet();
+        entries.invalidateAll(ids);
+        missing.invalidateAll(ids);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.invalidateAll();
+        missing.invalidateAll();
+    }
+
+    private Mono<Optional<GameGenerationMetadata>> load(String id, Supplier<Mono<GameGenerationMetadata>> loader) {
+        long invalidationsAtStart = invalidations.get();
+        return loader.get()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(loaded -> {
+                    if (invalidations.get() != invalidationsAtStart) {
+                        return;
+                    }
+                    if (loaded.isPresent()) {
+                        entries.put(id, loaded.get());
+                    } else {
+                        missing.put(id, Boolean.TRUE);
+                    }
+                });
+    }
+
+    private GameGenerationMetadata copy(GameGenerationMetadata metadata) {
+        GameGenerationMetadata copy = objectMapper.convertValue(metadata, GameGenerationMetadata.class);
+        copy.setSeqNo(metadata.getSeqNo());
+        copy.setPrimaryTerm(metadata.getPrimaryTerm());
+        return copy;
+    }
+}
@@ -0,0 +1,79 @@
+package com.unboxy.gamemanagerservice.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.unboxy.gamemanagerservice.model.SearchCriteria;
+import com.unboxy.gamemanagerservice.model.SearchResult;
+import com.unboxy.gamemanagerservice.model.TranscribeCommonMetadata;
+import com.unboxy.gamemanagerservice.utils.SearchCriteriaKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived transcript search result pages per user and canonical criteria, so the same popular search is not sent to OpenSearch
+ * again within a few seconds. Transcript writes drop the writer's entries; cursor requests are never cached.
+ * Cached results are shared between callers and must not be modified.
+ */
+@Component
+public class SearchResultCache {
+    private final Cache<ResultKey, SearchResult<TranscribeCommonMetadata>> results;
+    private final boolean enabled;
+
+    // Bumped by every invalidation; a search that raced with one is returned but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SearchResultCache(@Value("${search.resultCache.enabled:false}") boolean enabled,
+                             @Value("${search.resultCache.ttlMillis:5000}") long ttlMillis,
+                             @Value("${search.resultCache.maxSize:1000}") long maxSize) {
+        this.enabled = enabled;
+        this.results = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * @param scope distinguishes searches that share criteria but differ in what they return
+     */
+    public Mono<SearchResult<TranscribeCommonMetadata>> get(String scope, String userId, SearchCriteria criteria,
+                                                          Supplier<Mono<SearchResult<TranscribeCommonMetadata>>> loader) {
+        if (!enabled || criteria.getCursor() != null) {
+            return loader.get();
+        }
+
+        return Mono.defer(() -> {
+            ResultKey key = new ResultKey(scope, userId, SearchCriteriaKeys.resultKey(criteria));
+            SearchResult<TranscribeCommonMetadata> cached = results.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+
+            long invalidationsAtStart = invalidations.get();
+            return loader.get()
+                    .doOnNext(result -> {
+                        if (invalidations.get() == invalidationsAtStart) {
+                            results.put(key, result);
+                        }
+                    });
+        });
+    }
+
+    public void invalidateUser(String userId) {
+        invalidations.incrementAndGet();
+        results.asMap().keySet().removeIf(key -> Objects.equals(key.userId(), userId));
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    private record ResultKey(String scope, String userId, String criteriaKey) {
+    }
+}
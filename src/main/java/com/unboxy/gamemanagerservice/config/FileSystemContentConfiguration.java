@@ -0,0 +1,33 @@
+package com.unboxy.gamemanagerservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.ResourceHandlerRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import java.nio.file.Paths;
+
+/**
+ * Serves the filesystem content store under {@link #CONTENT_PATH}, which is where the default
+ * content.store.filesystem.publicBaseUrl points, so game, asset and preload URLs resolve without S3.
+ * Content types are derived from the key's extension.
+ */
+@Configuration
+@ConditionalOnProperty(name = "content.store.type", havingValue = "filesystem")
+public class FileSystemContentConfiguration implements WebFluxConfigurer {
+    public static final String CONTENT_PATH = "/content";
+
+    private final String root;
+
+    public FileSystemContentConfiguration(@Value("${content.store.filesystem.root:./content-store}") String root) {
+        this.root = root;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String location = Paths.get(root).toAbsolutePath().normalize().toUri().toString();
+        registry.addResourceHandler(CONTENT_PATH + "/**")
+                .addResourceLocations(location.endsWith("/") ? location : location + "/");
+    }
+}
@@ -2,6 +2,7 @@ package com.unboxy.gamemanagerservice.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
@@ -15,7 +16,9 @@ public class SecurityConfiguration {
         return http
             .csrf(csrf -> csrf.disable())  // Disable CSRF protection as it's not typically used in API scenarios
             .authorizeExchange(exchanges -> exchanges
-                .pathMatchers("/signup", "/login", "/actuator/beans", "/games", "/games/{id}", "/games/{id}/play", "/games/user/{userId}").permitAll()  // Allow public access to sign up and login endpoints
+                .pathMatchers("/signup", "/login", "/actuator/beans", "/games", "/games/stats", "/games/suggest", "/games/{id}", "/games/{id}/play", "/games/user/{userId}").permitAll()  // Allow public access to sign up and login endpoints
+                .pathMatchers(HttpMethod.GET, "/games/{id}/assets").permitAll()
+                .pathMatchers(HttpMethod.GET, FileSystemContentConfiguration.CONTENT_PATH + "/**").permitAll()  // Files of the filesystem content store
                 .anyExchange().authenticated()  // All other requests must be authenticated
             )
             .oauth2ResourceServer(oauth2 -> oauth2
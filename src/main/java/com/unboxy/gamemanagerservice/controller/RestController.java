@@ -1,22 +1,51 @@
 package com.unboxy.gamemanagerservice.controller;
 
+import com.unboxy.gamemanagerservice.model.GameAsset;
+import com.unboxy.gamemanagerservice.model.GameAssetManifest;
+import com.unboxy.gamemanagerservice.model.GameForkRequest;
 import com.unboxy.gamemanagerservice.model.GameGenerationMetadata;
 import com.unboxy.gamemanagerservice.model.GameGenerationRequest;
+import com.unboxy.gamemanagerservice.model.GameSearchResult;
+import com.unboxy.gamemanagerservice.model.GameStats;
+import com.unboxy.gamemanagerservice.model.GameSuggestions;
 import com.unboxy.gamemanagerservice.model.GameUpdateRequest;
 import com.unboxy.gamemanagerservice.model.SearchCriteria;
 import com.unboxy.gamemanagerservice.model.SearchResult;
+import com.unboxy.gamemanagerservice.model.SourceView;
+import com.unboxy.gamemanagerservice.model.StatsInterval;
+import com.unboxy.gamemanagerservice.model.TranscribeCommonMetadata;
+import com.unboxy.gamemanagerservice.service.ExportService;
+import com.unboxy.gamemanagerservice.service.GameAssetService;
+import com.unboxy.gamemanagerservice.service.GameBundleService;
 import com.unboxy.gamemanagerservice.service.GameGenerationService;
 import com.unboxy.gamemanagerservice.service.GameMetadataService;
+import com.unboxy.gamemanagerservice.service.GameStatsService;
+import com.unboxy.gamemanagerservice.service.GameSuggestionService;
+import com.unboxy.gamemanagerservice.service.RuntimeAssetService;
 import com.unboxy.gamemanagerservice.service.S3Service;
 import com.unboxy.gamemanagerservice.service.SearchService;
+import com.unboxy.gamemanagerservice.utils.UserUtils;
 import lombok.RequiredArgsConstructor;
 import org.opensearch.client.opensearch.OpenSearchAsyncClient;
 import org.opensearch.client.opensearch.cluster.HealthRequest;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.springframework.util.StringUtils.hasText;
 
 @org.springframework.web.bind.annotation.RestController
 @RequiredArgsConstructor
@@ -28,8 +57,20 @@ public class RestController {
 
     private final GameMetadataService gameMetadataService;
 
+    private final GameSuggestionService gameSuggestionService;
+
+    private final GameStatsService gameStatsService;
+
     private final SearchService searchService;
 
+    private final ExportService exportService;
+
+    private final GameAssetService gameAssetService;
+
+    private final GameBundleService gameBundleService;
+
+    private final RuntimeAssetService runtimeAssetService;
+
     private final OpenSearchAsyncClient openSearchAsyncClient;
 
     @GetMapping("/version")
@@ -56,12 +97,39 @@ public class RestController {
     @GetMapping("/games")
     public Mono<ResponseEntity<SearchResult<GameGenerationMetadata>>> getAllGames(
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "view", defaultValue = "CARD") SourceView view,
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "keyset", defaultValue = "false") boolean keyset) {
 
-        return gameMetadataService.getAllGamesPublic(page, size)
+        return gameMetadataService.getAllGamesPublic(page, size, view, fields, cursor, keyset)
                 .map(games -> ResponseEntity.ok().body(games));
     }
 
+    @GetMapping("/games/stats")
+    public Mono<ResponseEntity<GameStats>> getGameStats(@RequestParam(value = "userId", required = false) String userId,
+                                                        @RequestParam(value = "interval", defaultValue = "DAY") StatsInterval interval,
+                                                        @RequestParam(value = "buckets", required = false) Integer buckets) {
+        return gameStatsService.getStats(userId, interval, buckets)
+                .map(stats -> ResponseEntity.ok().body(stats));
+    }
+
+    /**
+     * Typeahead for the search box. Clients pass a stable session id so a lookup superseded by a newer prefix of the
+     * same user (or, anonymously, the same address) is answered with 204 instead of waiting for its result.
+     */
+    @GetMapping("/games/suggest")
+    public Mono<ResponseEntity<GameSuggestions>> suggestGames(@RequestParam("q") String query,
+                                                              @RequestParam(value = "session", required = false) String session,
+                                                              ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String client = remoteAddress == null ? null : remoteAddress.getHostString();
+        return gameSuggestionService.suggest(query, session, client)
+                .map(suggestions -> ResponseEntity.ok().body(suggestions))
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
     @GetMapping("/games/{id}")
     public Mono<ResponseEntity<GameGenerationMetadata>> getGameMetadata(@PathVariable String id) {
         return gameMetadataService.getGameMetadataPublic(id)
@@ -70,19 +138,65 @@ public class RestController {
 
     @GetMapping("/games/{id}/play")
     public Mono<ResponseEntity<ByteBuffer>> playGame(@PathVariable String id) {
-        return s3Service.getGameFile(id)
-                .map(byteBuffer -> ResponseEntity.ok()
+        // A missing or unreadable asset manifest must never break play, it only costs the preload hints
+        Mono<List<String>> preloadLinks = gameAssetService.getManifest(id)
+                .map(manifest -> manifest.assets().stream().map(this::preloadLink).toList())
+                .onErrorReturn(List.of())
+                .map(assetLinks -> Stream.concat(Stream.of(runtimeAssetService.getPreloadLinkHeader()), assetLinks.stream()).toList());
+
+        return gameMetadataService.getGameMetadataPublic(id)
+                .flatMap(s3Service::getGameFile)
+                .zipWith(preloadLinks)
+                .map(fileAndLinks -> ResponseEntity.ok()
                         .header("Content-Type", "text/html")
-                        .body(byteBuffer));
+                        .header(HttpHeaders.LINK, fileAndLinks.getT2().toArray(String[]::new))
+                        .body(fileAndLinks.getT1()));
+    }
+
+    @GetMapping(value = "/games/{id}/bundle.zip", produces = "application/zip")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> downloadGameBundle(@PathVariable String id) {
+        return gameMetadataService.getGameMetadataPublic(id)
+                .map(metadata -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("application/zip"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(id + ".zip").build().toString())
+                        .body(gameBundleService.streamBundle(metadata)));
+    }
+
+    @GetMapping("/games/{id}/assets")
+    public Mono<ResponseEntity<GameAssetManifest>> getGameAssets(@PathVariable String id) {
+        return gameMetadataService.getGameMetadataPublic(id)
+                .flatMap(metadata -> gameAssetService.getManifest(id))
+                .map(manifest -> ResponseEntity.ok().body(manifest));
+    }
+
+    @PutMapping("/games/{id}/assets/{name}")
+    public Mono<ResponseEntity<GameAssetManifest>> uploadGameAsset(@PathVariable String id,
+                                                                  @PathVariable String name,
+                                                                  @RequestHeader(value = HttpHeaders.CONTENT_TYPE, defaultValue = MediaType.APPLICATION_OCTET_STREAM_VALUE) String contentType,
+                                                                  @RequestBody Flux<DataBuffer> content) {
+        return gameMetadataService.getGameMetadata(id)
+                .flatMap(metadata -> gameAssetService.uploadAsset(id, name, contentType, content))
+                .map(manifest -> ResponseEntity.ok().body(manifest));
+    }
+
+    @PostMapping(value = "/games/{id}/assets", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<GameAssetManifest>> uploadGameAssets(@PathVariable String id, @RequestPart("files") Flux<FilePart> files) {
+        return gameMetadataService.getGameMetadata(id)
+                .flatMap(metadata -> gameAssetService.uploadAssets(id, files))
+                .map(manifest -> ResponseEntity.ok().body(manifest));
     }
 
     @GetMapping("/games/user/{userId}")
     public Mono<ResponseEntity<SearchResult<GameGenerationMetadata>>> getGamesByUserId(
             @PathVariable String userId,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "view", defaultValue = "CARD") SourceView view,
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "keyset", defaultValue = "false") boolean keyset) {
 
-        return gameMetadataService.getGamesByUserId(userId, page, size)
+        return gameMetadataService.getGamesByUserId(userId, page, size, view, fields, cursor, keyset)
                 .map(games -> ResponseEntity.ok().body(games));
     }
 
@@ -101,17 +215,73 @@ public class RestController {
                 .map(updatedMetadata -> ResponseEntity.ok().body(updatedMetadata));
     }
 
-    @PostMapping("/games/search")
-    public Mono<ResponseEntity<SearchResult>> searchGames(@RequestBody SearchCriteria searchCriteria) {
+    @PostMapping("/games/{id}/fork")
+    public Mono<ResponseEntity<GameGenerationMetadata>> forkGame(@PathVariable String id, @RequestBody(required = false) GameForkRequest forkRequest) {
+        GameForkRequest request = forkRequest == null ? new GameForkRequest() : forkRequest;
+        return gameMetadataService.getGameMetadataPublic(id)
+                .flatMap(source -> gameGenerationService.forkGame(source, request))
+                .flatMap(gameMetadataService::createMetadata)
+                .flatMap(forkedMetadata -> {
+                    if (!hasText(request.getUserMessage())) {
+                        return Mono.just(forkedMetadata);
+                    }
+                    GameUpdateRequest updateRequest = new GameUpdateRequest();
+                    updateRequest.setUserMessage(request.getUserMessage());
+                    return gameGenerationService.updateGame(forkedMetadata.getId(), updateRequest, forkedMetadata)
+                            .flatMap(updatedMetadata -> gameMetadataService.updateMetadata(updatedMetadata));
+                })
+                .map(metadata -> ResponseEntity.ok().body(metadata));
+    }
+
+    @PutMapping("/games/{id}/revisions/{revision}")
+    public Mono<ResponseEntity<GameGenerationMetadata>> rollbackGame(@PathVariable String id, @PathVariable String revision) {
+        return gameMetadataService.rollbackToRevision(id, revision)
+                .map(updatedMetadata -> ResponseEntity.ok().body(updatedMetadata));
+    }
+
+    @PostMapping("/games/catalog/search")
+    public Mono<ResponseEntity<GameSearchResult>> searchGames(@RequestBody SearchCriteria searchCriteria,
+                                                             @RequestParam(value = "view", defaultValue = "CARD") SourceView view,
+                                                             @RequestParam(value = "fields", required = false) List<String> fields) {
+        return gameMetadataService.searchGames(searchCriteria, view, fields)
+                .map(searchResult -> ResponseEntity.ok().body(searchResult));
+    }
+
+    /**
+     * Transcript search. /games/search is its original route and is kept for existing clients; new clients use
+     * /transcripts/search, and game search lives at /games/catalog/search.
+     */
+    @PostMapping({"/transcripts/search", "/games/search"})
+    public Mono<ResponseEntity<SearchResult<TranscribeCommonMetadata>>> searchTranscripts(@RequestBody SearchCriteria searchCriteria) {
         return searchService.search(searchCriteria)
                 .map(searchResult -> ResponseEntity.ok().body(searchResult));
     }
 
+    /**
+     * The current user's games and transcripts as NDJSON, streamed as the client reads; {@code content=true} inlines each
+     * game's current files.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> export(
+            @RequestParam(value = "types", defaultValue = ExportService.GAMES + "," + ExportService.TRANSCRIPTS) Set<String> types,
+            @RequestParam(value = "content", defaultValue = "false") boolean includeContent) {
+        return UserUtils.getCurrentUserId()
+                .map(userId -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("export.ndjson").build().toString())
+                        .body(exportService.export(userId, types, includeContent)));
+    }
+
     @DeleteMapping("/games/{id}")
     public Mono<ResponseEntity<Void>> deleteGame(@PathVariable String id) {
-        return gameMetadataService.getGameMetadata(id)
-                .flatMap(metadata -> s3Service.deleteGameFile(metadata.getId()))
-                .flatMap(success -> gameMetadataService.deleteGameMetadata(id))
+        return gameMetadataService.deleteGameMetadata(id)
                 .map(success -> ResponseEntity.ok().build());
     }
+
+    private String preloadLink(GameAsset asset) {
+        String contentType = asset.contentType() == null ? "" : asset.contentType();
+        String as = contentType.startsWith("image/") ? "image" : contentType.startsWith("audio/") ? "audio" : "fetch";
+        // fetch preloads are only reused by the page when the request modes match
+        return "<" + asset.url() + ">; rel=preload; as=" + as + ("fetch".equals(as) ? "; crossorigin" : "");
+    }
 }
@@ -0,0 +1,29 @@
+package com.unboxy.gamemanagerservice.controller;
+
+import com.unboxy.gamemanagerservice.repository.SearchInstrumentation;
+import com.unboxy.gamemanagerservice.repository.SearchInstrumentation.ShapeSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/searchshapes}: the slowest search shapes of this instance, with their fingerprints as used in the
+ * {@code opensearch.search.*} metrics and the slow search log.
+ */
+@Component
+@Endpoint(id = "searchshapes")
+@RequiredArgsConstructor
+public class SearchShapesEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SearchInstrumentation searchInstrumentation;
+
+    @ReadOperation
+    public List<ShapeSummary> topShapes(@Nullable Integer limit) {
+        return searchInstrumentation.topShapes(limit == null || limit <= 0 ? DEFAULT_LIMIT : limit);
+    }
+}
@@ -1,5 +1,6 @@
 package com.unboxy.gamemanagerservice.filter;
 
+import com.unboxy.gamemanagerservice.utils.RequestMemo;
 import com.unboxy.gamemanagerservice.utils.UserUtils;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
@@ -25,11 +26,11 @@ public class ReactiveContextFilter implements WebFilter {
                         // Extract user ID from the JWT token
                         String userId = jwt.getClaimAsString("sub"); // Adjust as needed
                         // Propagate userId in the Reactive Context
-                        return Mono.just(Context.of(UserUtils.USER_ID, userId));
+                        return Mono.just(Context.of(UserUtils.USER_ID, userId, RequestMemo.CONTEXT_KEY, new RequestMemo()));
                     }
                     return Mono.empty(); // No context to add
                 })
-                .defaultIfEmpty(Context.empty()) // Default context if no security context is found
+                .defaultIfEmpty(Context.of(RequestMemo.CONTEXT_KEY, new RequestMemo())) // Default context if no security context is found
                 .flatMap(context -> chain.filter(exchange).contextWrite(context));
     }
 }
@@ -0,0 +1,17 @@
+package com.unboxy.gamemanagerservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * One line of an NDJSON export.
+ *
+ * @param type    {@code game} or {@code transcript}
+ * @param content the game's current files by name, only when content was requested
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExportRecord(String type, Object data, Map<String, String> content) {
+    public static final String GAME = "game";
+    public static final String TRANSCRIPT = "transcript";
+}
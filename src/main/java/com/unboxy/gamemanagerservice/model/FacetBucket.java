@@ -0,0 +1,4 @@
+package com.unboxy.gamemanagerservice.model;
+
+public record FacetBucket(String value, long count) {
+}
@@ -0,0 +1,4 @@
+package com.unboxy.gamemanagerservice.model;
+
+public record GameAsset(String name, String url, String contentHash, long size, String contentType) {
+}
@@ -0,0 +1,6 @@
+package com.unboxy.gamemanagerservice.model;
+
+import java.util.List;
+
+public record GameAssetManifest(String gameId, List<GameAsset> assets) {
+}
@@ -0,0 +1,11 @@
+package com.unboxy.gamemanagerservice.model;
+
+import lombok.Data;
+
+@Data
+public class GameForkRequest {
+    private String title; // Optional: defaults to the source game's title
+    private String description;
+    private String tags;
+    private String userMessage; // Optional: change request applied to the fork right after copying
+}
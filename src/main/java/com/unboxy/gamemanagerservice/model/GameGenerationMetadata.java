@@ -1,6 +1,7 @@
 package com.unboxy.gamemanagerservice.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -10,6 +11,7 @@ import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Document(indexName = "games")
 @Data
@@ -60,4 +62,35 @@ public class GameGenerationMetadata {
 
     @Field(type = FieldType.Text)
     private String aiResponse;
-}
\ No newline at end of file
+
+    @Field(type = FieldType.Keyword)
+    private String currentRevision;
+
+    @Field(type = FieldType.Keyword)
+    private List<String> revisions;
+
+    @Field(type = FieldType.Keyword)
+    private String forkedFrom;
+
+    @Field(type = FieldType.Date)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime deletedAt;
+
+    /**
+     * Set by the reclaimer node that claimed this tombstoned game; other nodes skip it until the lease runs out.
+     */
+    @Field(type = FieldType.Date)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime reclaimLeaseUntil;
+
+    /**
+     * Version the document was read at; sent back as if_seq_no/if_primary_term on the next write. Never stored or exposed.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long seqNo;
+
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long primaryTerm;
+}
@@ -0,0 +1,4 @@
+package com.unboxy.gamemanagerservice.model;
+
+public record GameRevision(String revision, String publicUrl) {
+}
@@ -0,0 +1,16 @@
+package com.unboxy.gamemanagerservice.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param highlights highlighted fragments per game id and field, only for games whose text matched
+ * @param facets     value counts per facet field over all matching games
+ */
+public record GameSearchResult(String searchText,
+                               List<GameGenerationMetadata> items,
+                               Pagination pagination,
+                               String nextCursor,
+                               Map<String, Map<String, List<String>>> highlights,
+                               Map<String, List<FacetBucket>> facets) {
+}
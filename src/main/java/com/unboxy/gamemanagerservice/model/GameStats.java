@@ -0,0 +1,16 @@
+package com.unboxy.gamemanagerservice.model;
+
+import java.util.List;
+
+/**
+ * @param userId  owner the counts are limited to, or null for the whole catalog
+ * @param created games created per interval, starting at {@code from}
+ */
+public record GameStats(String userId,
+                        long total,
+                        List<FacetBucket> gameTypes,
+                        List<FacetBucket> gameStatuses,
+                        StatsInterval interval,
+                        String from,
+                        List<FacetBucket> created) {
+}
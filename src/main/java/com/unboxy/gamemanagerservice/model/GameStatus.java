@@ -5,5 +5,6 @@ public enum GameStatus {
     COMPLETED,
     FAILED,
     DEPLOYING,
-    DEPLOYED
+    DEPLOYED,
+    DELETED
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.unboxy.gamemanagerservice.model;
+
+import java.util.List;
+
+public record GameSuggestions(String prefix, List<String> titles, List<String> tags) {
+}
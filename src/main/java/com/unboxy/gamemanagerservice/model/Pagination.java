@@ -1,4 +1,8 @@
 package com.unboxy.gamemanagerservice.model;
 
 public record Pagination(Integer pageNumber, Integer totalPages, Integer pageSize, Long totalSize) {
+    public static Pagination of(Integer pageNumber, int pageSize, long totalSize) {
+        int totalPages = pageSize <= 0 ? 0 : Math.toIntExact((totalSize + pageSize - 1) / pageSize);
+        return new Pagination(pageNumber, totalPages, pageSize, totalSize);
+    }
 }
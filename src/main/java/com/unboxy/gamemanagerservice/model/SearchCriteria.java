@@ -15,4 +15,8 @@ public class SearchCriteria {
     Integer pageSize;
     LogicalOperatorType queryOperator;
     List<Query> queries;
+    /**
+     * Opaque token from a previous page's nextCursor; when set, pageNumber is ignored.
+     */
+    String cursor;
 }
@@ -0,0 +1,42 @@
+package com.unboxy.gamemanagerservice.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position in a result set: the sort values of the last returned hit and, when paging a point-in-time snapshot, its id.
+ * Clients only ever see the opaque, URL safe token.
+ */
+public record SearchCursor(List<String> searchAfter, String pitId) {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    /**
+     * @return the decoded cursor, or null for a blank token (first page)
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            SearchCursor cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token.getBytes(StandardCharsets.US_ASCII)), SearchCursor.class);
+            if (cursor.searchAfter() == null || cursor.searchAfter().isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return cursor;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
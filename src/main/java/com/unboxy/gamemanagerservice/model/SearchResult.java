@@ -2,5 +2,11 @@ package com.unboxy.gamemanagerservice.model;
 
 import java.util.List;
 
-public record SearchResult<T>(String searchText, List<T> items, Pagination pagination) {
+/**
+ * @param nextCursor opaque token for the following page, or null when there are no more results or offset paging was used
+ */
+public record SearchResult<T>(String searchText, List<T> items, Pagination pagination, String nextCursor) {
+    public SearchResult(String searchText, List<T> items, Pagination pagination) {
+        this(searchText, items, pagination, null);
+    }
 }
@@ -0,0 +1,22 @@
+package com.unboxy.gamemanagerservice.model;
+
+import java.util.List;
+
+/**
+ * _source include/exclude lists; empty lists mean no filtering.
+ */
+public record SourceProjection(List<String> includes, List<String> excludes) {
+    public static final SourceProjection FULL = new SourceProjection(List.of(), List.of());
+
+    public static SourceProjection including(List<String> fields) {
+        return new SourceProjection(List.copyOf(fields), List.of());
+    }
+
+    public static SourceProjection excluding(List<String> fields) {
+        return new SourceProjection(List.of(), List.copyOf(fields));
+    }
+
+    public boolean isFull() {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+}
@@ -0,0 +1,16 @@
+package com.unboxy.gamemanagerservice.model;
+
+/**
+ * Named _source projections. Each repository decides which fields a view contains.
+ */
+public enum SourceView {
+    /**
+     * Just enough to render a list entry.
+     */
+    CARD,
+    /**
+     * Everything a detail page shows; large generation and transcription payloads are left out.
+     */
+    DETAIL,
+    FULL
+}
@@ -0,0 +1,39 @@
+package com.unboxy.gamemanagerservice.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Histogram bucket size of the catalog statistics, with the number of buckets returned by default.
+ */
+public enum StatsInterval {
+    DAY(ChronoUnit.DAYS, 30),
+    WEEK(ChronoUnit.WEEKS, 12),
+    MONTH(ChronoUnit.MONTHS, 12);
+
+    private final ChronoUnit unit;
+    private final int defaultBuckets;
+
+    StatsInterval(ChronoUnit unit, int defaultBuckets) {
+        this.unit = unit;
+        this.defaultBuckets = defaultBuckets;
+    }
+
+    public int getDefaultBuckets() {
+        return defaultBuckets;
+    }
+
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate minus(LocalDate date, int buckets) {
+        return date.minus(buckets, unit);
+    }
+}
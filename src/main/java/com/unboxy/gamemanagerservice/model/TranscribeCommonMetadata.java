@@ -1,6 +1,7 @@
 package com.unboxy.gamemanagerservice.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -24,4 +25,10 @@ public class TranscribeCommonMetadata extends TranscribeCreateUpdateMetadata {
     String contentFileName;
     String transcribeStatus;
     List<AudioSegment> audioSegments;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    Long seqNo;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    Long primaryTerm;
 }
@@ -0,0 +1,55 @@
+package com.unboxy.gamemanagerservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * One {@link AudioSegment} of a transcript, stored as its own document in the segments index and routed by transcriptId.
+ */
+@Data
+@NoArgsConstructor
+public class TranscriptSegment {
+    String id;
+    String transcriptId;
+    String userId;
+    Integer segmentId;
+    Float startTime;
+    Float endTime;
+    String transcript;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    Long seqNo;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    Long primaryTerm;
+
+    public static String documentId(String transcriptId, int segmentId) {
+        return transcriptId + "_" + segmentId;
+    }
+
+    public static TranscriptSegment of(String transcriptId, String userId, AudioSegment audioSegment) {
+        TranscriptSegment segment = new TranscriptSegment();
+        segment.setId(documentId(transcriptId, audioSegment.id()));
+        segment.setTranscriptId(transcriptId);
+        segment.setUserId(userId);
+        segment.setSegmentId(audioSegment.id());
+        segment.setStartTime(parseTime(audioSegment.startTime()));
+        segment.setEndTime(parseTime(audioSegment.endTime()));
+        segment.setTranscript(audioSegment.transcript());
+        return segment;
+    }
+
+    public AudioSegment toAudioSegment() {
+        return new AudioSegment(segmentId == null ? 0 : segmentId,
+                transcript,
+                startTime == null ? null : String.valueOf(startTime),
+                endTime == null ? null : String.valueOf(endTime),
+                null);
+    }
+
+    private static Float parseTime(String time) {
+        return time == null || time.isBlank() ? null : Float.valueOf(time);
+    }
+}
@@ -1,10 +1,23 @@
 package com.unboxy.gamemanagerservice.repository;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.unboxy.gamemanagerservice.model.Pagination;
 import com.unboxy.gamemanagerservice.model.SearchCriteria;
+import com.unboxy.gamemanagerservice.model.SearchCursor;
+import com.unboxy.gamemanagerservice.model.SearchResult;
+import com.unboxy.gamemanagerservice.model.SourceProjection;
+import com.unboxy.gamemanagerservice.model.SourceView;
+import com.unboxy.gamemanagerservice.repository.MicroBatchingBulkWriter.BulkWrite;
 import com.unboxy.gamemanagerservice.utils.SearchQueryUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.tuple.Pair;
+import org.opensearch.client.json.JsonData;
 import org.opensearch.client.opensearch.OpenSearchAsyncClient;
 import org.opensearch.client.opensearch._types.*;
 import org.opensearch.client.opensearch._types.OpType;
@@ -14,8 +27,20 @@ import org.opensearch.client.opensearch._types.query_dsl.BoolQuery;
 import org.opensearch.client.opensearch._types.query_dsl.Query;
 import org.opensearch.client.opensearch._types.query_dsl.QueryBuilders;
 import org.opensearch.client.opensearch.core.*;
-import org.opensearch.client.opensearch.core.get.GetResult;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
+import org.opensearch.client.opensearch.core.pit.CreatePitRequest;
+import org.opensearch.client.opensearch.core.pit.CreatePitResponse;
+import org.opensearch.client.opensearch.core.pit.DeletePitRequest;
+import org.opensearch.client.opensearch.core.pit.DeletePitResponse;
 import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.core.search.Pit;
+import org.opensearch.client.opensearch.core.search.TotalHits;
+import org.opensearch.client.opensearch.core.search.TotalHitsRelation;
+import org.opensearch.client.opensearch.core.search.TrackHits;
+import org.opensearch.client.opensearch.core.search.SourceConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
@@ -23,12 +48,23 @@ import org.springframework.http.HttpStatus;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.context.ContextView;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @RequiredArgsConstructor
 public abstract class AbstractElasticsearchMetadataRepository<T> implements MetadataRepository<T> {
@@ -37,9 +73,68 @@ public abstract class AbstractElasticsearchMetadataRepository<T> implements Meta
     protected final static int DEFAULT_MAX_RESULT = 10_000;
     protected final static String ES_AGGREGATE_TOTAL = "total";
     protected final static String ES_CREATION_DATE_TIME = "creationDateTime";
+    protected final static String ES_ID = "id";
+    private final static Duration VERSION_CONFLICT_BACKOFF = Duration.ofMillis(10);
+    private final static TypeReference<Map<String, Object>> DOCUMENT_TYPE = new TypeReference<>() {};
 
     protected final OpenSearchAsyncClient client;
     protected final SearchQueryUtils searchQueryUtils;
+    protected final ObjectMapper objectMapper;
+    private final SearchInstrumentation searchInstrumentation;
+    private final OpenSearchIndexManager indexManager;
+
+    @Value("${opensearch.update.retryOnConflict:3}")
+    private int retryOnConflict;
+
+    @Value("${opensearch.update.maxVersionConflictRetries:5}")
+    private int maxVersionConflictRetries;
+
+    @Value("${opensearch.trackTotalHitsUpTo:1000}")
+    private int trackTotalHitsUpTo;
+
+    @Value("${opensearch.pit.enabled:false}")
+    private boolean pitEnabled;
+
+    @Value("${opensearch.pit.keepAlive:5m}")
+    private String pitKeepAlive;
+
+    @Value("${opensearch.pit.maxOpen:100}")
+    private int pitMaxOpen;
+
+    @Value("${opensearch.bulk.enabled:false}")
+    private boolean bulkEnabled;
+
+    @Value("${opensearch.bulk.maxBatchSize:100}")
+    private int bulkMaxBatchSize;
+
+    @Value("${opensearch.bulk.maxDelayMillis:5}")
+    private long bulkMaxDelayMillis;
+
+    @Value("${opensearch.bulk.maxInFlightRequests:2}")
+    private int bulkMaxInFlightRequests;
+
+    private MicroBatchingBulkWriter<T> bulkWriter;
+
+    // Point-in-times opened for paged searches, until closed or idle for longer than their keep-alive
+    private Cache<String, Boolean> openPits;
+
+    @PostConstruct
+    void init() {
+        openPits = CacheBuilder.newBuilder()
+                .expireAfterAccess(DurationStyle.detectAndParse(pitKeepAlive))
+                .build();
+        if (bulkEnabled) {
+            bulkWriter = new MicroBatchingBulkWriter<>(this::executeBulk, bulkMaxBatchSize,
+                    Duration.ofMillis(bulkMaxDelayMillis), bulkMaxInFlightRequests);
+        }
+    }
+
+    @PreDestroy
+    void shutdownBulkWriter() {
+        if (bulkWriter != null) {
+            bulkWriter.shutdown();
+        }
+    }
 
     @Override
     public Mono<T> save(String id, T metadata) {
@@ -51,13 +146,110 @@ public abstract class AbstractElasticsearchMetadataRepository<T> implements Meta
         return sendIndexRequest(id, metadata, false);
     }
 
+    @Override
+    public Flux<T> saveAll(Map<String, T> metadataById) {
+        return sendBulkRequest(metadataById, true);
+    }
+
+    @Override
+    public Flux<T> updateAll(Map<String, T> metadataById) {
+        return sendBulkRequest(metadataById, false);
+    }
+
+    /**
+     * Read-modify-write guarded by seq_no/primary_term. On a version conflict the document is read again and the mutation
+     * re-applied to the fresh copy, so concurrent writers never overwrite each other's changes.
+     */
+    @Override
+    public Mono<T> updateWithRetry(String id, UnaryOperator<T> mutation) {
+        return Mono.defer(() -> findById(id)
+                        .map(mutation)
+                        .flatMap(metadata -> update(id, metadata)))
+                .retryWhen(Retry.backoff(maxVersionConflictRetries, VERSION_CONFLICT_BACKOFF)
+                        .filter(ConcurrencyFailureException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    @Override
+    public Mono<T> partialUpdate(String id, T metadata, Collection<String> fields) {
+        return Mono.defer(() -> {
+                    // Serialized with the same mapper as full documents, so dates and nested types keep their stored format
+                    Map<String, Object> document = objectMapper.convertValue(metadata, DOCUMENT_TYPE);
+                    Map<String, Object> changes = new HashMap<>();
+                    for (String field : fields) {
+                        if (!document.containsKey(field)) {
+                            return Mono.error(new IllegalArgumentException("Unknown field " + field + " for " + getMetadataClassType().getSimpleName()));
+                        }
+                        changes.put(field, document.get(field));
+                    }
+
+                    return doUpdate(UpdateRequest.of(builder -> builder
+                            .index(getWriteIndexCoordinates())
+                            .id(id)
+                            .doc(changes)
+                            .retryOnConflict(retryOnConflict)));
+                })
+                .doOnNext(response -> setVersion(metadata, response.seqNo(), response.primaryTerm()))
+                .thenReturn(metadata)
+                .onErrorMap(OpenSearchException.class, exception -> toUpdateException(id, exception));
+    }
+
+    @Override
+    public Mono<T> scriptedUpdate(String id, String script, Map<String, Object> params) {
+        Map<String, JsonData> scriptParams = new HashMap<>();
+        params.forEach((name, value) -> scriptParams.put(name, JsonData.of(value)));
+
+        UpdateRequest<T, Map<String, Object>> request = UpdateRequest.of(builder -> builder
+                .index(getWriteIndexCoordinates())
+                .id(id)
+                .script(Script.of(scriptBuilder -> scriptBuilder.inline(inline -> inline
+                        .lang("painless")
+                        .source(script)
+                        .params(scriptParams))))
+                .retryOnConflict(retryOnConflict)
+                .source(SourceConfig.of(source -> source.fetch(true))));
+
+        return doUpdate(request)
+                .mapNotNull(response -> {
+                    if (response.get() == null || response.get().source() == null) {
+                        return null;
+                    }
+                    T metadata = response.get().source();
+                    setVersion(metadata, response.seqNo(), response.primaryTerm());
+                    return metadata;
+                })
+                .onErrorMap(OpenSearchException.class, exception -> toUpdateException(id, exception));
+    }
+
+    private Throwable toUpdateException(String id, OpenSearchException exception) {
+        if (exception.status() == HttpStatus.NOT_FOUND.value()) {
+            return new RuntimeException("The requested resource does not exist: " + getMetadataClassType().getName() + " : " + id, exception);
+        }
+        if (exception.status() == HttpStatus.CONFLICT.value()) {
+            return new ConcurrencyFailureException("Artifact ID " + id + " was modified concurrently", exception);
+        }
+        return exception;
+    }
+
+    @SneakyThrows
+    protected Mono<UpdateResponse<T>> doUpdate(UpdateRequest<T, Map<String, Object>> updateRequest) {
+        return Mono.fromFuture(client.update(updateRequest, getMetadataClassType()));
+    }
+
     @Override
     public Flux<T> findByFields(Map<String, String> fieldValues, int page, int size, Map<String, SortOrder> sortFields) {
+        return findByFields(fieldValues, page, size, sortFields, SourceProjection.FULL);
+    }
+
+    @Override
+    public Flux<T> findByFields(Map<String, String> fieldValues, int page, int size, Map<String, SortOrder> sortFields,
+                                SourceProjection projection) {
         return Flux.deferContextual(ctx -> {
             SearchRequest.Builder requestBuilder = newSearchRequestBuilder()
                     .query(buildQueryByFields(fieldValues, ctx))
-                    .from(page)
+                    .from(page * size)
                     .size(size);
+            toSourceConfig(projection).ifPresent(requestBuilder::source);
 
             if (sortFields != null && !sortFields.isEmpty()) {
                 sortFields.forEach((field, order) -> {
@@ -70,11 +262,224 @@ public abstract class AbstractElasticsearchMetadataRepository<T> implements Meta
 
             return doSearch(request)
                     .flatMapIterable(searchResult -> searchResult.hits().hits().stream()
-                            .map(Hit::source)
+                            .map(this::fromHit)
                             .toList());
         });
     }
 
+    /**
+     * Keyset pagination over the fields' matches using search_after on the cursor sort fields. Every page costs the same
+     * as the first, and paging is not limited by max_result_window. With point-in-time enabled, the first page opens a
+     * snapshot that the following pages read from, so concurrent writes don't shift results between pages.
+     */
+    public Mono<SearchResult<T>> findByFieldsAfter(Map<String, String> fieldValues, int size, String cursorToken,
+                                                   SourceProjection projection) {
+        return Mono.deferContextual(ctx -> {
+            SearchCursor cursor = SearchCursor.decode(cursorToken);
+            Query query = buildQueryByFields(fieldValues, ctx);
+
+            return searchWithPit(cursor, pitId -> {
+                SearchRequest.Builder requestBuilder = newCursorSearchRequestBuilder(pitId)
+                        .query(query)
+                        .size(size)
+                        .sort(toSortOptions(getCursorSortFields()))
+                        .trackTotalHits(trackTotalHitsUpTo());
+                if (cursor != null) {
+                    requestBuilder.searchAfter(cursor.searchAfter());
+                }
+                toSourceConfig(projection).ifPresent(requestBuilder::source);
+
+                return doSearch(requestBuilder.build())
+                        .map(response -> new SearchResult<>("",
+                                response.hits().hits().stream().map(this::fromHit).toList(),
+                                exactPagination(response, null, size),
+                                nextCursor(response, size, pitId)));
+            }, SearchResult::nextCursor);
+        });
+    }
+
+    /**
+     * Every match of the fields, read page by page from a point-in-time opened for this stream (regardless of
+     * opensearch.pit.enabled) with search_after. The next page is only requested when the subscriber has consumed the
+     * previous one, so a slow consumer holds at most about two pages. The point-in-time is closed when the stream
+     * completes, fails or is cancelled.
+     */
+    public Flux<T> streamByFields(Map<String, String> fieldValues, int pageSize, SourceProjection projection) {
+        return Flux.deferContextual(ctx -> {
+            Query query = buildQueryByFields(fieldValues, ctx);
+
+            return Flux.usingWhen(
+                    doCreatePit(CreatePitRequest.of(builder -> builder
+                                    .targetIndexes(getIndexCoordinates())
+                                    .keepAlive(Time.of(time -> time.time(pitKeepAlive)))))
+                            .map(CreatePitResponse::pitId),
+                    pitId -> searchStreamPage(query, pageSize, projection, pitId, null)
+                            .expand(response -> {
+                                List<Hit<T>> hits = response.hits().hits();
+                                if (hits.size() < pageSize) {
+                                    return Mono.empty();
+                                }
+                                return searchStreamPage(query, pageSize, projection, pitId, hits.get(hits.size() - 1).sort());
+                            })
+                            .concatMapIterable(response -> response.hits().hits().stream().map(this::fromHit).toList(), 1),
+                    this::deletePit);
+        });
+    }
+
+    private Mono<SearchResponse<T>> searchStreamPage(Query query, int pageSize, SourceProjection projection, String pitId,
+                                                     List<String> searchAfter) {
+        SearchRequest.Builder requestBuilder = newCursorSearchRequestBuilder(pitId)
+                .query(query)
+                .size(pageSize)
+                .sort(toSortOptions(getCursorSortFields()))
+                .trackTotalHits(TrackHits.of(trackHits -> trackHits.enabled(false)));
+        if (searchAfter != null) {
+            requestBuilder.searchAfter(searchAfter);
+        }
+        toSourceConfig(projection).ifPresent(requestBuilder::source);
+        return doSearch(requestBuilder.build());
+    }
+
+    /**
+     * Offset page of the fields' matches. Totals are only counted up to the track_total_hits threshold; pagination is
+     * null when the real total is larger, and callers fill it in from a count.
+     */
+    public Mono<SearchResult<T>> findPageByFields(Map<String, String> fieldValues, int page, int size, SourceProjection projection) {
+        return Mono.deferContextual(ctx -> {
+            SearchRequest.Builder requestBuilder = newSearchRequestBuilder()
+                    .query(buildQueryByFields(fieldValues, ctx))
+                    .from(page * size)
+                    .size(size)
+                    .sort(toSortOptions(getCursorSortFields()))
+                    .trackTotalHits(trackTotalHitsUpTo());
+            toSourceConfig(projection).ifPresent(requestBuilder::source);
+
+            return doSearch(requestBuilder.build())
+                    .map(response -> new SearchResult<>("",
+                            response.hits().hits().stream().map(this::fromHit).toList(),
+                            exactPagination(response, page, size)));
+        });
+    }
+
+    public Mono<Long> countByFields(Map<String, String> fieldValues) {
+        return Mono.deferContextual(ctx -> doCount(CountRequest.of(builder -> builder
+                        .index(getIndexCoordinates())
+                        .query(buildQueryByFields(fieldValues, ctx))))
+                .map(CountResponse::count));
+    }
+
+    @SneakyThrows
+    protected Mono<CountResponse> doCount(CountRequest countRequest) {
+        return Mono.fromFuture(client.count(countRequest));
+    }
+
+    protected TrackHits trackTotalHitsUpTo() {
+        return TrackHits.of(trackHits -> trackHits.count(trackTotalHitsUpTo));
+    }
+
+    protected Pagination exactPagination(SearchResponse<T> response, Integer page, int size) {
+        TotalHits total = response.hits().total();
+        if (total == null || total.relation() != TotalHitsRelation.Eq) {
+            return null;
+        }
+        return Pagination.of(page, size, total.value());
+    }
+
+    /**
+     * Runs one page of a cursor-paged search (the search gets the point-in-time id, or null) and closes the
+     * point-in-time once there is no next page or the search failed, rather than leaving it open until it expires.
+     */
+    protected <R> Mono<R> searchWithPit(SearchCursor cursor, Function<String, Mono<R>> search,
+                                        Function<R, String> nextCursor) {
+        return resolvePitId(cursor).flatMap(pitId -> {
+            if (pitId.isEmpty()) {
+                return search.apply(null);
+            }
+            String id = pitId.get();
+            return search.apply(id)
+                    .flatMap(result -> nextCursor.apply(result) == null
+                            ? deletePit(id).thenReturn(result)
+                            : Mono.just(result))
+                    .onErrorResume(e -> deletePit(id).then(Mono.error(e)));
+        });
+    }
+
+    /**
+     * The point-in-time to read from: the cursor's, a newly opened one for a first page, or none when disabled. Once
+     * opensearch.pit.maxOpen are open, new first pages are served without a snapshot instead of opening another one;
+     * the cap is per repository and only approximate under concurrent first pages.
+     */
+    protected Mono<Optional<String>> resolvePitId(SearchCursor cursor) {
+        if (cursor != null && cursor.pitId() != null) {
+            // Keeps a tracked point-in-time from expiring here while it is still being paged through
+            openPits.getIfPresent(cursor.pitId());
+            return Mono.just(Optional.of(cursor.pitId()));
+        }
+        if (!pitEnabled || cursor != null) {
+            return Mono.just(Optional.empty());
+        }
+        openPits.cleanUp();
+        if (openPits.size() >= pitMaxOpen) {
+            return Mono.just(Optional.empty());
+        }
+        return doCreatePit(CreatePitRequest.of(builder -> builder
+                        .targetIndexes(getIndexCoordinates())
+                        .keepAlive(Time.of(time -> time.time(pitKeepAlive)))))
+                .map(response -> {
+                    openPits.put(response.pitId(), Boolean.TRUE);
+                    return Optional.of(response.pitId());
+                });
+    }
+
+    protected String nextCursor(SearchResponse<T> response, int size, String pitId) {
+        List<Hit<T>> hits = response.hits().hits();
+        if (hits.size() < size || hits.isEmpty()) {
+            return null;
+        }
+        return new SearchCursor(hits.get(hits.size() - 1).sort(), pitId).encode();
+    }
+
+    /**
+     * Searches against a point-in-time must not name an index; the snapshot already determines it.
+     */
+    protected SearchRequest.Builder newCursorSearchRequestBuilder(String pitId) {
+        if (pitId == null) {
+            return newSearchRequestBuilder();
+        }
+        return new SearchRequest.Builder()
+                .seqNoPrimaryTerm(true)
+                .pit(Pit.of(pit -> pit.id(pitId).keepAlive(pitKeepAlive)));
+    }
+
+    /**
+     * The regular sort plus id as a tiebreaker, so search_after positions are unique.
+     */
+    protected List<Pair<String, SortOrder>> getCursorSortFields() {
+        List<Pair<String, SortOrder>> sorts = new ArrayList<>(getSortFields());
+        sorts.add(Pair.of(ES_ID, SortOrder.Desc));
+        return sorts;
+    }
+
+    @SneakyThrows
+    protected Mono<CreatePitResponse> doCreatePit(CreatePitRequest createPitRequest) {
+        return Mono.fromFuture(client.createPit(createPitRequest));
+    }
+
+    /**
+     * Closing is best effort: an unclosed point-in-time expires after its keep-alive anyway.
+     */
+    private Mono<Void> deletePit(String pitId) {
+        openPits.invalidate(pitId);
+        return Mono.fromFuture(() -> doDeletePit(DeletePitRequest.of(builder -> builder.pitId(List.of(pitId)))))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    @SneakyThrows
+    private CompletableFuture<DeletePitResponse> doDeletePit(DeletePitRequest deletePitRequest) {
+        return client.deletePit(deletePitRequest);
+    }
+
     @Override
     public Mono<String> deleteById(String id) {
         return doDelete(id)
@@ -83,33 +488,106 @@ public abstract class AbstractElasticsearchMetadataRepository<T> implements Meta
 
     @SneakyThrows
     private Mono<DeleteResponse> doDelete(String id) {
-        return Mono.fromFuture(client.delete(DeleteRequest.of(d -> d.id(id).index(getIndexCoordinates()))));
+        return Mono.fromFuture(client.delete(DeleteRequest.of(d -> d.id(id).index(getWriteIndexCoordinates()))));
     }
 
     protected Mono<T> sendIndexRequest(String id, T metadata, boolean isCreate) {
+        if (bulkWriter != null) {
+            return bulkWriter.submit(new BulkWrite<>(id, metadata, isCreate));
+        }
+
         var indexRequestBuilder = newIndexRequestBuilder();
         indexRequestBuilder.opType(isCreate ? OpType.Create : OpType.Index);
 
-        setSeqNoPrimaryTermToIndexRequest(indexRequestBuilder, metadata);
+        if (!isCreate) {
+            setSeqNoPrimaryTermToIndexRequest(indexRequestBuilder, metadata);
+        }
 
         indexRequestBuilder.document(metadata)
-                .id(id);
+                .id(id)
+                .routing(getRouting(metadata));
 
         return doIndex(indexRequestBuilder.build())
+                .doOnNext(response -> setVersion(metadata, response.seqNo(), response.primaryTerm()))
                 .thenReturn(metadata)
-                .onErrorMap(throwable -> {
-                    OpenSearchException exception = (OpenSearchException) throwable;
+                .onErrorMap(OpenSearchException.class, exception -> {
                     if (exception.status() == HttpStatus.CONFLICT.value()) {
-                        throw new ConcurrencyFailureException("Artifact ID " + id + " already exist", exception);
+                        return new ConcurrencyFailureException(conflictMessage(id, isCreate), exception);
                     }
-                    return throwable;
+                    return exception;
                 });
 
     }
 
+    private Flux<T> sendBulkRequest(Map<String, T> metadataById, boolean isCreate) {
+        if (metadataById.isEmpty()) {
+            return Flux.empty();
+        }
+
+        List<BulkWrite<T>> writes = metadataById.entrySet().stream()
+                .map(entry -> new BulkWrite<>(entry.getKey(), entry.getValue(), isCreate))
+                .toList();
+
+        return executeBulk(writes)
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(itemResult -> itemResult);
+    }
+
+    /**
+     * Sends the writes as one bulk request and maps every response item, in request order, to its own outcome.
+     */
+    private Mono<List<Mono<T>>> executeBulk(List<BulkWrite<T>> writes) {
+        List<BulkOperation> operations = writes.stream()
+                .map(this::toBulkOperation)
+                .toList();
+
+        return doBulk(BulkRequest.of(builder -> builder.index(getWriteIndexCoordinates()).operations(operations)))
+                .map(response -> {
+                    List<BulkResponseItem> items = response.items();
+                    return IntStream.range(0, writes.size())
+                            .mapToObj(i -> toItemResult(writes.get(i), items.get(i)))
+                            .toList();
+                });
+    }
+
+    private BulkOperation toBulkOperation(BulkWrite<T> write) {
+        if (write.isCreate()) {
+            return BulkOperation.of(operation -> operation.create(create -> create
+                    .id(write.id())
+                    .routing(getRouting(write.metadata()))
+                    .document(write.metadata())));
+        }
+
+        Optional<SeqNoPrimaryTerm> seqNoPrimaryTerm = getSeqNoPrimaryTerm(write.metadata());
+        return BulkOperation.of(operation -> operation.index(index -> {
+            index.id(write.id()).routing(getRouting(write.metadata())).document(write.metadata());
+            seqNoPrimaryTerm.ifPresent(value -> index
+                    .ifSeqNo(value.sequenceNumber())
+                    .ifPrimaryTerm(value.primaryTerm()));
+            return index;
+        }));
+    }
+
+    private Mono<T> toItemResult(BulkWrite<T> write, BulkResponseItem item) {
+        if (item.error() == null) {
+            setVersion(write.metadata(), item.seqNo(), item.primaryTerm());
+            return Mono.just(write.metadata());
+        }
+        if (item.status() == HttpStatus.CONFLICT.value()) {
+            return Mono.error(new ConcurrencyFailureException(conflictMessage(write.id(), write.isCreate())));
+        }
+        return Mono.error(new RuntimeException("Bulk write of " + write.id() + " failed: "
+                + item.error().type() + " - " + item.error().reason()));
+    }
+
+    @SneakyThrows
+    protected Mono<BulkResponse> doBulk(BulkRequest bulkRequest) {
+        return Mono.fromFuture(client.bulk(bulkRequest));
+    }
+
     IndexRequest.Builder<T> newIndexRequestBuilder() {
         return new IndexRequest.Builder<T>()
-                .index(getIndexCoordinates());
+                .index(getWriteIndexCoordinates());
     }
 
     @SneakyThrows
@@ -124,13 +602,54 @@ public abstract class AbstractElasticsearchMetadataRepository<T> implements Meta
         });
     }
 
+    private String conflictMessage(String id, boolean isCreate) {
+        return isCreate ? "Artifact ID " + id + " already exist" : "Artifact ID " + id + " was modified concurrently";
+    }
+
+    private void setVersion(T metadata, Long seqNo, Long primaryTerm) {
+        if (seqNo != null && primaryTerm != null) {
+            setSeqNoPrimaryTerm(metadata, new SeqNoPrimaryTerm(seqNo, primaryTerm));
+        }
+    }
+
+    /**
+     * Source of a search hit carrying the version it was read at. Requires seq_no_primary_term on the request,
+     * which {@link #newSearchRequestBuilder()} enables.
+     */
+    protected T fromHit(Hit<T> hit) {
+        T metadata = hit.source();
+        if (metadata != null) {
+            setVersion(metadata, hit.seqNo(), hit.primaryTerm());
+        }
+        return metadata;
+    }
+
     protected abstract Optional<SeqNoPrimaryTerm> getSeqNoPrimaryTerm(T metadata);
 
+    protected abstract void setSeqNoPrimaryTerm(T metadata, SeqNoPrimaryTerm seqNoPrimaryTerm);
+
     protected abstract String getIndexCoordinates();
 
+    /**
+     * Custom shard routing for writes; null uses the document id.
+     */
+    protected String getRouting(T metadata) {
+        return null;
+    }
+
+    /**
+     * Writes and realtime GETs go through the write alias; it always points at a single index, also while
+     * {@link OpenSearchIndexManager} is reindexing. Until the manager has created it, and without index management,
+     * they go to the read name instead.
+     */
+    protected String getWriteIndexCoordinates() {
+        return indexManager.writeTarget(getIndexCoordinates());
+    }
+
     SearchRequest.Builder newSearchRequestBuilder() {
         return new SearchRequest.Builder()
-                .index(getIndexCoordinates());
+                .index(getIndexCoordinates())
+                .seqNoPrimaryTerm(true);
     }
 
     private Query buildQueryByFields(Map<String, String> fieldValues, ContextView ctx) {
@@ -148,8 +667,15 @@ public abstract class AbstractElasticsearchMetadataRepository<T> implements Meta
         return searchQueryUtils.addMustAndMustNotFields(mustFieldsToQuery, mustNotFieldsToQuery);
     }
 
-    @SneakyThrows
+    /**
+     * Every search goes through here, so latency, took and shard statistics are recorded per query shape.
+     */
     protected Mono<SearchResponse<T>> doSearch(SearchRequest request) {
+        return searchInstrumentation.instrument(getIndexCoordinates(), request, this::executeSearch);
+    }
+
+    @SneakyThrows
+    private Mono<SearchResponse<T>> executeSearch(SearchRequest request) {
         return Mono.fromFuture(client.search(request, getMetadataClassType()));
     }
 
@@ -158,20 +684,71 @@ public abstract class AbstractElasticsearchMetadataRepository<T> implements Meta
     protected abstract Map<String, Float> getTextSearchFields();
 
     protected SearchRequest toSearchRequest(SearchCriteria criteria, String userId) {
+        return toSearchRequest(criteria, userId, SourceProjection.FULL);
+    }
+
+    protected SearchRequest toSearchRequest(SearchCriteria criteria, String userId, SourceProjection projection) {
+        return toSearchRequest(criteria, userId, projection, null);
+    }
+
+    protected SearchRequest toSearchRequest(SearchCriteria criteria, String userId, SourceProjection projection, String pitId) {
         BoolQuery.Builder boolBuilder = QueryBuilders.bool();
 
         boolBuilder = searchQueryUtils.addTextSearchQuery(boolBuilder, criteria, getTextSearchFields());
         boolBuilder = searchQueryUtils.addSearchCriteriaFilters(boolBuilder, criteria);
         boolBuilder = searchQueryUtils.addUserIdFilter(boolBuilder, userId);
 
+        return toSearchRequestBuilder(criteria, boolBuilder.build().toQuery(), toSortOptions(getCursorSortFields()), projection, pitId)
+                .build();
+    }
+
+    /**
+     * Paging, sorting and projection of a criteria search around an already built query: search_after when the criteria
+     * carry a cursor, from/size otherwise.
+     */
+    protected SearchRequest.Builder toSearchRequestBuilder(SearchCriteria criteria, Query query, List<SortOptions> sort,
+                                                           SourceProjection projection, String pitId) {
         Pageable pageable = toPagable(criteria);
 
-        return newSearchRequestBuilder()
-                .sort(toSortOptions(getSortFields()))
-                .query(boolBuilder.build().toQuery())
-                .size(pageable.getPageSize())
-                .from(Math.toIntExact(pageable.getOffset()))
-                .build();
+        SearchRequest.Builder requestBuilder = newCursorSearchRequestBuilder(pitId)
+                .sort(sort)
+                .query(query)
+                .size(pageable.getPageSize());
+
+        SearchCursor cursor = SearchCursor.decode(criteria.getCursor());
+        if (cursor != null) {
+            requestBuilder.searchAfter(cursor.searchAfter());
+        } else {
+            requestBuilder.from(Math.toIntExact(pageable.getOffset()));
+        }
+        toSourceConfig(projection).ifPresent(requestBuilder::source);
+        return requestBuilder;
+    }
+
+    /**
+     * Resolves a list endpoint's projection: explicitly requested fields win over the named view.
+     * Projected documents are partial and must never be written back.
+     */
+    public SourceProjection toSourceProjection(SourceView view, List<String> fields) {
+        if (fields != null && !fields.isEmpty()) {
+            Set<String> includes = new LinkedHashSet<>(fields);
+            includes.add("id");
+            return SourceProjection.including(new ArrayList<>(includes));
+        }
+        return getSourceProjection(view == null ? SourceView.FULL : view);
+    }
+
+    protected SourceProjection getSourceProjection(SourceView view) {
+        return SourceProjection.FULL;
+    }
+
+    protected Optional<SourceConfig> toSourceConfig(SourceProjection projection) {
+        if (projection == null || projection.isFull()) {
+            return Optional.empty();
+        }
+        return Optional.of(SourceConfig.of(source -> source.filter(filter -> filter
+                .includes(projection.includes())
+                .excludes(projection.excludes()))));
     }
 
     protected Pageable toPagable(SearchCriteria criteria) {
@@ -195,8 +772,16 @@ public abstract class AbstractElasticsearchMetadataRepository<T> implements Meta
 
     @Override
     public Mono<T> findById(String id) {
-        return Mono.deferContextual(ctx -> doGet(GetRequest.of(builder -> builder.id(id).index(getIndexCoordinates())))
-                .switchIfEmpty(Mono.error(new RuntimeException("The requested resource does not exist: " + getMetadataClassType().getName() + " : " + id))));
+        return findByIdIfPresent(id)
+                .switchIfEmpty(Mono.error(new RuntimeException("The requested resource does not exist: " + getMetadataClassType().getName() + " : " + id)));
+    }
+
+    /**
+     * Realtime GET by id: served from the translog when needed, so it sees writes that no search can see yet.
+     * Completes empty when the document does not exist.
+     */
+    public Mono<T> findByIdIfPresent(String id) {
+        return Mono.defer(() -> doGet(GetRequest.of(builder -> builder.id(id).index(getWriteIndexCoordinates()).realtime(true))));
     }
 
     @SneakyThrows
@@ -211,6 +796,10 @@ public abstract class AbstractElasticsearchMetadataRepository<T> implements Meta
                     }
                     return Mono.error(e);
                 })
-                .mapNotNull(GetResult::source);
+                .mapNotNull(response -> {
+                    T metadata = response.source();
+                    setVersion(metadata, response.seqNo(), response.primaryTerm());
+                    return metadata;
+                });
     }
 }
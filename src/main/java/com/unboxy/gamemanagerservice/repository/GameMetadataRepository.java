@@ -1,28 +1,97 @@
 package com.unboxy.gamemanagerservice.repository;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unboxy.gamemanagerservice.model.FacetBucket;
 import com.unboxy.gamemanagerservice.model.GameGenerationMetadata;
+import com.unboxy.gamemanagerservice.model.GameSearchResult;
+import com.unboxy.gamemanagerservice.model.GameSuggestions;
+import com.unboxy.gamemanagerservice.model.GameStats;
+import com.unboxy.gamemanagerservice.model.GameStatus;
+import com.unboxy.gamemanagerservice.model.SearchCriteria;
+import com.unboxy.gamemanagerservice.model.SearchCursor;
 import com.unboxy.gamemanagerservice.model.SearchResult;
+import com.unboxy.gamemanagerservice.model.SourceProjection;
+import com.unboxy.gamemanagerservice.model.SourceView;
+import com.unboxy.gamemanagerservice.model.StatsInterval;
 import com.unboxy.gamemanagerservice.utils.SearchQueryUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.opensearch.client.json.JsonData;
 import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch._types.SortOptions;
 import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.aggregations.Aggregate;
+import org.opensearch.client.opensearch._types.aggregations.Aggregation;
+import org.opensearch.client.opensearch._types.aggregations.CalendarInterval;
+import org.opensearch.client.opensearch._types.aggregations.FieldDateMath;
+import org.opensearch.client.opensearch._types.query_dsl.BoolQuery;
+import org.opensearch.client.opensearch._types.query_dsl.Operator;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch._types.query_dsl.QueryBuilders;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.TrackHits;
 import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+
+import static org.springframework.util.StringUtils.hasText;
 
 @Repository
 public class GameMetadataRepository extends AbstractElasticsearchMetadataRepository<GameGenerationMetadata> {
     protected static final String INDEX = "games";
 
-    public GameMetadataRepository(OpenSearchAsyncClient client, SearchQueryUtils searchQueryUtils) {
-        super(client, searchQueryUtils);
+    private static final List<String> FACET_FIELDS = List.of("gameType", "gameStatus");
+    private static final List<String> HIGHLIGHT_FIELDS = List.of("title", "description", "tags");
+    private static final int FACET_SIZE = 20;
+    private static final int HIGHLIGHT_FRAGMENT_SIZE = 150;
+
+    private static final String TITLE_SUGGEST_QUERY = "title";
+    private static final String TAGS_SUGGEST_QUERY = "tags";
+    private static final SourceProjection SUGGEST_PROJECTION = SourceProjection.including(List.of("id", "title", "tags"));
+
+    private static final String HISTOGRAM_FORMAT = "yyyy-MM-dd";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private static final SourceProjection CARD_PROJECTION = SourceProjection.including(List.of(
+            "id", "title", "description", "gameType", "gameStatus", "tags", "publicGameUrl", "posterUrl",
+            "userId", "forkedFrom", "createdAt", "updatedAt"));
+    private static final SourceProjection DETAIL_PROJECTION = SourceProjection.excluding(List.of("aiResponse", "generatedPrompt"));
+
+    public GameMetadataRepository(OpenSearchAsyncClient client, SearchQueryUtils searchQueryUtils, ObjectMapper objectMapper,
+            SearchInstrumentation searchInstrumentation, OpenSearchIndexManager indexManager) {
+        super(client, searchQueryUtils, objectMapper, searchInstrumentation, indexManager);
     }
 
     @Override
     protected Optional<SeqNoPrimaryTerm> getSeqNoPrimaryTerm(GameGenerationMetadata metadata) {
-        return Optional.empty();
+        if (metadata.getSeqNo() == null || metadata.getPrimaryTerm() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new SeqNoPrimaryTerm(metadata.getSeqNo(), metadata.getPrimaryTerm()));
+    }
+
+    @Override
+    protected void setSeqNoPrimaryTerm(GameGenerationMetadata metadata, SeqNoPrimaryTerm seqNoPrimaryTerm) {
+        metadata.setSeqNo(seqNoPrimaryTerm.sequenceNumber());
+        metadata.setPrimaryTerm(seqNoPrimaryTerm.primaryTerm());
     }
 
     @Override
@@ -35,21 +104,315 @@ public class GameMetadataRepository extends AbstractElasticsearchMetadataReposit
         return GameGenerationMetadata.class;
     }
 
+    @Override
+    protected SourceProjection getSourceProjection(SourceView view) {
+        return switch (view) {
+            case CARD -> CARD_PROJECTION;
+            case DETAIL -> DETAIL_PROJECTION;
+            case FULL -> SourceProjection.FULL;
+        };
+    }
+
+    @Override
+    protected List<Pair<String, SortOrder>> getSortFields() {
+        return List.of(Pair.of("createdAt", SortOrder.Desc));
+    }
+
     @Override
     protected Map<String, Float> getTextSearchFields() {
         return Map.of("title", 2.0f, "description", 1.0f, "tags", 1.5f);
     }
 
+    /**
+     * Tombstoned games are hidden from every field based lookup; only the reclaimer looks at them.
+     */
+    @Override
+    protected BoolQuery.Builder getBaseMatchQuery(ContextView ctx,
+                                                  Map<String, List<String>> mustFieldsToQuery,
+                                                  Map<String, List<String>> mustNotFieldsToQuery) {
+        Map<String, List<String>> mustNot = new HashMap<>(mustNotFieldsToQuery);
+        mustNot.put("gameStatus", List.of(GameStatus.DELETED.toString()));
+        return super.getBaseMatchQuery(ctx, mustFieldsToQuery, mustNot);
+    }
+
+    /**
+     * Tombstoned games, oldest deletion first, that no reclaimer currently holds a lease on.
+     */
+    public Flux<GameGenerationMetadata> findTombstoned(int size) {
+        SearchRequest request = newSearchRequestBuilder()
+                .query(QueryBuilders.bool()
+                        .filter(QueryBuilders.term()
+                                .field("gameStatus")
+                                .value(FieldValue.of(GameStatus.DELETED.toString()))
+                                .build()
+                                .toQuery())
+                        .mustNot(QueryBuilders.range()
+                                .field("reclaimLeaseUntil")
+                                .gt(JsonData.of("now"))
+                                .build()
+                                .toQuery())
+                        .build()
+                        .toQuery())
+                .sort(toSortOptions(List.of(Pair.of("deletedAt", SortOrder.Asc))))
+                .size(size)
+                .build();
+
+        return doSearch(request)
+                .flatMapIterable(searchResult -> searchResult.hits().hits().stream()
+                        .map(this::fromHit)
+                        .toList());
+    }
+
+    /**
+     * Public game search in one round-trip: weighted multi_match for relevance, criteria and the tombstone exclusion in
+     * filter context, facet counts for gameType and gameStatus, and highlighted fragments. Text searches sort by score
+     * first; the cursor sort fields keep the order stable.
+     */
+    public Mono<GameSearchResult> search(SearchCriteria criteria, SourceProjection projection) {
+        return searchWithPit(SearchCursor.decode(criteria.getCursor()), pitId -> {
+            BoolQuery.Builder boolBuilder = QueryBuilders.bool();
+            searchQueryUtils.addMultiMatchQuery(boolBuilder, criteria.getSearchText(), getTextSearchFields());
+            searchQueryUtils.addSearchCriteriaFilterContext(boolBuilder, criteria);
+            boolBuilder.filter(notDeletedFilter());
+
+            List<SortOptions> sort = new ArrayList<>();
+            if (hasText(criteria.getSearchText())) {
+                sort.add(SortOptions.of(sortBuilder -> sortBuilder.score(score -> score.order(SortOrder.Desc))));
+            }
+            sort.addAll(toSortOptions(getCursorSortFields()));
+
+            SearchRequest.Builder requestBuilder = toSearchRequestBuilder(criteria, boolBuilder.build().toQuery(), sort, projection, pitId)
+                    .trackTotalHits(trackTotalHitsUpTo())
+                    .highlight(searchQueryUtils.toHighlight(HIGHLIGHT_FIELDS, HIGHLIGHT_FRAGMENT_SIZE));
+            FACET_FIELDS.forEach(field -> requestBuilder.aggregations(field, Aggregation.of(aggregation -> aggregation
+                    .terms(terms -> terms.field(field).size(FACET_SIZE)))));
+
+            int size = toPagable(criteria).getPageSize();
+            Integer page = criteria.getCursor() == null ? toPagable(criteria).getPageNumber() : null;
+            return doSearch(requestBuilder.build())
+                    .map(response -> new GameSearchResult(criteria.getSearchText(),
+                            response.hits().hits().stream().map(this::fromHit).toList(),
+                            exactPagination(response, page, size),
+                            nextCursor(response, size, pitId),
+                            toHighlights(response),
+                            toFacets(response)));
+        }, GameSearchResult::nextCursor);
+    }
+
+    /**
+     * Typeahead over the edge-n-gram subfields of title and tags. Only the few fields needed are fetched and total hits
+     * are not counted, so the lookup stays on the fast path.
+     */
+    public Mono<GameSuggestions> suggest(String prefix, int size) {
+        SearchRequest.Builder requestBuilder = newSearchRequestBuilder()
+                .query(QueryBuilders.bool()
+                        .should(QueryBuilders.match()
+                                .field("title.suggest")
+                                .query(FieldValue.of(prefix))
+                                .operator(Operator.And)
+                                .queryName(TITLE_SUGGEST_QUERY)
+                                .boost(2.0f)
+                                .build()
+                                .toQuery())
+                        .should(QueryBuilders.match()
+                                .field("tags.suggest")
+                                .query(FieldValue.of(prefix))
+                                .operator(Operator.And)
+                                .queryName(TAGS_SUGGEST_QUERY)
+                                .build()
+                                .toQuery())
+                        .minimumShouldMatch("1")
+                        .filter(notDeletedFilter())
+                        .build()
+                        .toQuery())
+                .size(size)
+                .trackTotalHits(TrackHits.of(trackHits -> trackHits.enabled(false)));
+        toSourceConfig(SUGGEST_PROJECTION).ifPresent(requestBuilder::source);
+
+        String lastWord = StringUtils.substringAfterLast(" " + prefix, " ");
+        return doSearch(requestBuilder.build())
+                .map(response -> {
+                    Set<String> titles = new LinkedHashSet<>();
+                    Set<String> tags = new LinkedHashSet<>();
+                    response.hits().hits().forEach(hit -> {
+                        GameGenerationMetadata metadata = hit.source();
+                        if (metadata == null) {
+                            return;
+                        }
+                        if (hit.matchedQueries().contains(TITLE_SUGGEST_QUERY) && metadata.getTitle() != null) {
+                            titles.add(metadata.getTitle());
+                        }
+                        if (hit.matchedQueries().contains(TAGS_SUGGEST_QUERY) && metadata.getTags() != null) {
+                            Arrays.stream(metadata.getTags().split(","))
+                                    .map(String::trim)
+                                    .filter(tag -> hasWordStartingWith(tag, lastWord))
+                                    .forEach(tags::add);
+                        }
+                    });
+                    return new GameSuggestions(prefix,
+                            titles.stream().limit(size).toList(),
+                            tags.stream().limit(size).toList());
+                });
+    }
+
+    /**
+     * Catalog counts in one size-0 request: totals per gameType and gameStatus plus a createdAt histogram from {@code from}
+     * to the bucket holding {@code to}. Extended bounds make the histogram return every bucket of that range, empty ones
+     * included. The request has no relative dates, so the shard request cache can answer repeats until the next refresh.
+     */
+    public Mono<GameStats> stats(String userId, StatsInterval interval, LocalDate from, LocalDate to) {
+        BoolQuery.Builder boolBuilder = QueryBuilders.bool().filter(notDeletedFilter());
+        if (userId != null) {
+            boolBuilder.filter(QueryBuilders.term()
+                    .field("userId")
+                    .value(FieldValue.of(userId))
+                    .build()
+                    .toQuery());
+        }
+
+        Query createdSince = QueryBuilders.range()
+                .field("createdAt")
+                .gte(JsonData.of(from.atStartOfDay().format(DATE_FORMAT)))
+                .build()
+                .toQuery();
+
+        SearchRequest.Builder requestBuilder = newSearchRequestBuilder()
+                .query(boolBuilder.build().toQuery())
+                .size(0)
+                .requestCache(true)
+                .trackTotalHits(TrackHits.of(trackHits -> trackHits.enabled(true)))
+                .aggregations("created", Aggregation.of(aggregation -> aggregation
+                        .filter(createdSince)
+                        .aggregations("histogram", Aggregation.of(histogram -> histogram
+                                .dateHistogram(dateHistogram -> dateHistogram
+                                        .field("createdAt")
+                                        .calendarInterval(toCalendarInterval(interval))
+                                        .format(HISTOGRAM_FORMAT)
+                                        .minDocCount(0)
+                                        .extendedBounds(bounds -> bounds
+                                                .min(FieldDateMath.of(min -> min.expr(from.toString())))
+                                                .max(FieldDateMath.of(max -> max.expr(to.toString())))))))));
+        FACET_FIELDS.forEach(field -> requestBuilder.aggregations(field, Aggregation.of(aggregation -> aggregation
+                .terms(terms -> terms.field(field).size(FACET_SIZE)))));
+
+        return doSearch(requestBuilder.build())
+                .map(response -> {
+                    Map<String, List<FacetBucket>> facets = toFacets(response);
+                    Aggregate created = response.aggregations().get("created");
+                    List<FacetBucket> createdBuckets = created == null
+                            ? List.of()
+                            : created.filter().aggregations().get("histogram").dateHistogram().buckets().array().stream()
+                                    .map(bucket -> new FacetBucket(bucket.keyAsString(), bucket.docCount()))
+                                    .toList();
+                    return new GameStats(userId,
+                            response.hits().total() == null ? 0 : response.hits().total().value(),
+                            facets.get("gameType"),
+                            facets.get("gameStatus"),
+                            interval,
+                            from.toString(),
+                            createdBuckets);
+                });
+    }
+
+    private static CalendarInterval toCalendarInterval(StatsInterval interval) {
+        return switch (interval) {
+            case DAY -> CalendarInterval.Day;
+            case WEEK -> CalendarInterval.Week;
+            case MONTH -> CalendarInterval.Month;
+        };
+    }
+
+    private static boolean hasWordStartingWith(String text, String prefix) {
+        return Arrays.stream(text.toLowerCase().split("\\s+")).anyMatch(word -> word.startsWith(prefix));
+    }
+
+    private Query notDeletedFilter() {
+        return QueryBuilders.bool()
+                .mustNot(QueryBuilders.term()
+                        .field("gameStatus")
+                        .value(FieldValue.of(GameStatus.DELETED.toString()))
+                        .build()
+                        .toQuery())
+                .build()
+                .toQuery();
+    }
+
+    private Map<String, Map<String, List<String>>> toHighlights(SearchResponse<GameGenerationMetadata> response) {
+        Map<String, Map<String, List<String>>> highlights = new LinkedHashMap<>();
+        response.hits().hits().forEach(hit -> {
+            if (hit.highlight() != null && !hit.highlight().isEmpty()) {
+                highlights.put(hit.id(), hit.highlight());
+            }
+        });
+        return highlights;
+    }
+
+    private Map<String, List<FacetBucket>> toFacets(SearchResponse<GameGenerationMetadata> response) {
+        Map<String, List<FacetBucket>> facets = new LinkedHashMap<>();
+        FACET_FIELDS.forEach(field -> {
+            Aggregate aggregate = response.aggregations().get(field);
+            facets.put(field, aggregate == null || !aggregate.isSterms()
+                    ? List.of()
+                    : aggregate.sterms().buckets().array().stream()
+                            .map(bucket -> new FacetBucket(bucket.key(), bucket.docCount()))
+                            .toList());
+        });
+        return facets;
+    }
+
+    /**
+     * Ids of games created, changed or tombstoned at or after {@code since}, oldest change first. Deleted games are included.
+     */
+    public Flux<String> findChangedIdsSince(LocalDateTime since, int size) {
+        JsonData from = JsonData.of(since.format(DATE_FORMAT));
+        SearchRequest.Builder requestBuilder = newSearchRequestBuilder()
+                .query(QueryBuilders.bool()
+                        .should(QueryBuilders.range().field("updatedAt").gte(from).build().toQuery())
+                        .should(QueryBuilders.range().field("createdAt").gte(from).build().toQuery())
+                        .minimumShouldMatch("1")
+                        .build()
+                        .toQuery())
+                .sort(toSortOptions(List.of(Pair.of("updatedAt", SortOrder.Asc))))
+                .size(size);
+        toSourceConfig(SourceProjection.including(List.of(ES_ID))).ifPresent(requestBuilder::source);
+
+        return doSearch(requestBuilder.build())
+                .flatMapIterable(searchResult -> searchResult.hits().hits().stream()
+                        .map(hit -> hit.id())
+                        .toList());
+    }
+
+    /**
+     * Realtime GET plus an in-memory ownership check; tombstoned games are treated as missing like in every search.
+     */
     public Mono<GameGenerationMetadata> findByIdAndUserId(String id, String userId) {
-        return findByFields(Map.of("id", id, "userId", userId), 0, 1, Map.of("createdAt", SortOrder.Desc))
-                .next();
+        return findByIdIfPresent(id)
+                .filter(metadata -> isOwnedBy(metadata, userId));
+    }
+
+    public static boolean isOwnedBy(GameGenerationMetadata metadata, String userId) {
+        return userId != null
+                && userId.equals(metadata.getUserId())
+                && !GameStatus.DELETED.toString().equals(metadata.getGameStatus());
     }
 
     public Mono<SearchResult<GameGenerationMetadata>> findAllByUserId(String userId, int page, int size) {
-        return Mono.deferContextual(ctx -> {
-            return findByFields(Map.of("userId", userId), page, size, Map.of("createdAt", SortOrder.Desc))
-                    .collectList()
-                    .map(games -> new SearchResult<>("", games, null));
-        });
+        return findAllByUserId(userId, page, size, SourceProjection.FULL);
+    }
+
+    public Mono<SearchResult<GameGenerationMetadata>> findAllByUserId(String userId, int page, int size, SourceProjection projection) {
+        return findPageByFields(Map.of("userId", userId), page, size, projection);
+    }
+
+    public Mono<Long> countByUserId(String userId) {
+        return countByFields(Map.of("userId", userId));
+    }
+
+    public Flux<GameGenerationMetadata> streamByUserId(String userId, int pageSize) {
+        return streamByFields(Map.of("userId", userId), pageSize, SourceProjection.FULL);
+    }
+
+    public Mono<SearchResult<GameGenerationMetadata>> findAllByUserIdAfter(String userId, int size, String cursor, SourceProjection projection) {
+        return findByFieldsAfter(Map.of("userId", userId), size, cursor, projection);
     }
 }
\ No newline at end of file
@@ -1,18 +1,53 @@
 package com.unboxy.gamemanagerservice.repository;
 
+import com.unboxy.gamemanagerservice.model.SourceProjection;
 import org.opensearch.client.opensearch._types.SortOrder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 public interface MetadataRepository<T> {
     Mono<T> save(String id, T metadata);
 
     Mono<T> update(String id, T metadata);
 
+    /**
+     * Creates all documents with a single bulk request.
+     * Emits the documents in iteration order and fails with the first per-item error.
+     */
+    Flux<T> saveAll(Map<String, T> metadataById);
+
+    /**
+     * Indexes all documents with a single bulk request.
+     * Emits the documents in iteration order and fails with the first per-item error.
+     */
+    Flux<T> updateAll(Map<String, T> metadataById);
+
+    /**
+     * Reads the document, applies the mutation and writes it back conditioned on the version that was read,
+     * re-reading and re-applying on version conflicts.
+     */
+    Mono<T> updateWithRetry(String id, UnaryOperator<T> mutation);
+
+    /**
+     * Sends only the given fields of the metadata through the Update API, retrying on version conflicts.
+     * @return the passed metadata once the change is stored
+     */
+    Mono<T> partialUpdate(String id, T metadata, Collection<String> fields);
+
+    /**
+     * Runs a painless script against the stored document.
+     * @return the document as stored after the script ran
+     */
+    Mono<T> scriptedUpdate(String id, String script, Map<String, Object> params);
+
     Flux<T> findByFields(Map<String, String> fields, int page, int size, Map<String, SortOrder> sortFields);
 
+    Flux<T> findByFields(Map<String, String> fields, int page, int size, Map<String, SortOrder> sortFields, SourceProjection projection);
+
     /**
      * Find metadata by id
      * @param id id
@@ -0,0 +1,81 @@
+package com.unboxy.gamemanagerservice.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Buffers individual writes for up to {@code maxDelay} or {@code maxBatchSize} documents and sends them as one bulk request.
+ * Every caller gets its own item's outcome; a failure of the whole request fails every write in the batch.
+ */
+@Slf4j
+class MicroBatchingBulkWriter<T> {
+    private static final Duration EMIT_RETRY_DURATION = Duration.ofSeconds(1);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Sinks.Many<PendingWrite<T>> pendingWrites = Sinks.many().unicast().onBackpressureBuffer();
+    private final Sinks.Empty<Void> drained = Sinks.empty();
+    private final Disposable subscription;
+
+    MicroBatchingBulkWriter(Function<List<BulkWrite<T>>, Mono<List<Mono<T>>>> bulkExecutor,
+                            int maxBatchSize,
+                            Duration maxDelay,
+                            int maxInFlightBatches) {
+        subscription = pendingWrites.asFlux()
+                .bufferTimeout(maxBatchSize, maxDelay)
+                .flatMap(batch -> flush(bulkExecutor, batch), maxInFlightBatches)
+                .doFinally(signal -> drained.tryEmitEmpty())
+                .subscribe();
+    }
+
+    Mono<T> submit(BulkWrite<T> write) {
+        return Mono.defer(() -> {
+            Sinks.One<T> result = Sinks.one();
+            // Writers on different threads race for the sink; busy looping serializes them instead of failing
+            pendingWrites.emitNext(new PendingWrite<>(write, result), Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY_DURATION));
+            return result.asMono();
+        });
+    }
+
+    /**
+     * Sends the writes still buffered and waits for the batches in flight, so callers get their outcome before the
+     * client is closed. Writes submitted afterwards fail.
+     */
+    void shutdown() {
+        pendingWrites.tryEmitComplete();
+        try {
+            drained.asMono().block(SHUTDOWN_TIMEOUT);
+        } catch (IllegalStateException e) {
+            log.warn("Bulk writer did not drain within {}", SHUTDOWN_TIMEOUT);
+        }
+        subscription.dispose();
+    }
+
+    private Mono<Void> flush(Function<List<BulkWrite<T>>, Mono<List<Mono<T>>>> bulkExecutor, List<PendingWrite<T>> batch) {
+        List<BulkWrite<T>> writes = batch.stream().map(PendingWrite::write).toList();
+        return bulkExecutor.apply(writes)
+                .doOnNext(itemResults -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        Sinks.One<T> result = batch.get(i).result();
+                        itemResults.get(i).subscribe(result::tryEmitValue, result::tryEmitError);
+                    }
+                })
+                .then()
+                .onErrorResume(error -> {
+                    log.error("Bulk request of {} writes failed: {}", batch.size(), error.getMessage());
+                    batch.forEach(pending -> pending.result().tryEmitError(error));
+                    return Mono.empty();
+                });
+    }
+
+    record BulkWrite<T>(String id, T metadata, boolean isCreate) {
+    }
+
+    private record PendingWrite<T>(BulkWrite<T> write, Sinks.One<T> result) {
+    }
+}
@@ -0,0 +1,425 @@
+package com.unboxy.gamemanagerservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.unboxy.gamemanagerservice.utils.ContentHashUtils;
+import com.unboxy.gamemanagerservice.utils.SearchQueryUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.Conflicts;
+import org.opensearch.client.opensearch._types.VersionType;
+import org.opensearch.client.opensearch._types.WaitForActiveShards;
+import org.opensearch.client.opensearch._types.mapping.TypeMapping;
+import org.opensearch.client.opensearch.core.PutScriptRequest;
+import org.opensearch.client.opensearch.core.ReindexRequest;
+import org.opensearch.client.opensearch.indices.CloneIndexRequest;
+import org.opensearch.client.opensearch.indices.CreateIndexRequest;
+import org.opensearch.client.opensearch.indices.DeleteIndexRequest;
+import org.opensearch.client.opensearch.indices.ExistsAliasRequest;
+import org.opensearch.client.opensearch.indices.ExistsRequest;
+import org.opensearch.client.opensearch.indices.GetAliasRequest;
+import org.opensearch.client.opensearch.indices.GetMappingRequest;
+import org.opensearch.client.opensearch.indices.IndexSettings;
+import org.opensearch.client.opensearch.indices.PutIndicesSettingsRequest;
+import org.opensearch.client.opensearch.indices.UpdateAliasesRequest;
+import org.opensearch.client.opensearch.indices.update_aliases.Action;
+import org.opensearch.client.opensearch.tasks.GetTasksRequest;
+import org.opensearch.client.opensearch.tasks.GetTasksResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the lifecycle of our indices. Each logical index is a versioned concrete index ({@code games_v3}) behind a read alias
+ * with the logical name ({@code games}) and a write alias ({@code games-write}). The settings and mappings files are hashed
+ * into the mapping's _meta; when the hash differs from the live index, a new version is created and filled by a background
+ * reindex, and both aliases are moved to it in one atomic alias update. Old versions are kept for rollback.
+ */
+@Component
+@Slf4j
+public class OpenSearchIndexManager {
+    static final String WRITE_ALIAS_SUFFIX = "-write";
+
+    private static final String RESOURCE_ROOT = "opensearch/";
+    private static final String SCHEMA_HASH = "schema_hash";
+    private static final String VERSION_SEPARATOR = "_v";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration STARTUP_RETRY_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration STARTUP_RETRY_MAX_BACKOFF = Duration.ofMinutes(1);
+    private static final String WRITE_BLOCK_SETTING = "index.blocks.write";
+
+    private static final List<IndexDefinition> INDICES = List.of(
+            new IndexDefinition(GameMetadataRepository.INDEX, "games-settings.json", "games-mappings.json"),
+            new IndexDefinition(TranscribeMetadataRepository.INDEX, "transcription-settings.json", "transcription-mappings.json"),
+            new IndexDefinition(TranscriptSegmentRepository.INDEX, "transcription-segments-settings.json", "transcription-segments-mappings.json"));
+
+    private final OpenSearchAsyncClient client;
+    private final JacksonJsonpMapper jsonpMapper;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean requiredOnStartup;
+    private final Duration reindexPollInterval;
+    private final Disposable.Composite running = Disposables.composite();
+    // Aliases whose write alias is known to exist; until then writes go to the read name
+    private final Set<String> writeAliasesReady = ConcurrentHashMap.newKeySet();
+
+    public OpenSearchIndexManager(OpenSearchAsyncClient client,
+                                  @Qualifier("opensearchJsonpMapper") JacksonJsonpMapper jsonpMapper,
+                                  ObjectMapper objectMapper,
+                                  @Value("${opensearch.indices.manage:true}") boolean enabled,
+                                  @Value("${opensearch.indices.requiredOnStartup:false}") boolean requiredOnStartup,
+                                  @Value("${opensearch.indices.reindexPollMillis:5000}") long reindexPollMillis) {
+        this.client = client;
+        this.jsonpMapper = jsonpMapper;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.requiredOnStartup = requiredOnStartup;
+        this.reindexPollInterval = Duration.ofMillis(reindexPollMillis);
+    }
+
+    public static String writeAlias(String alias) {
+        return alias + WRITE_ALIAS_SUFFIX;
+    }
+
+    /**
+     * Where writes and realtime GETs for the alias go. The write alias is only used once the bootstrap has made sure it
+     * exists, because a write to a missing alias would auto-create a concrete index with that name and block the alias
+     * for good. Until then the read name is used, which is either a legacy concrete index or an alias on a single index.
+     */
+    public String writeTarget(String alias) {
+        return writeAliasesReady.contains(alias) ? writeAlias(alias) : alias;
+    }
+
+    /**
+     * With opensearch.indices.requiredOnStartup the indices are bootstrapped before the first request and startup fails
+     * when OpenSearch cannot be reached. Otherwise the bootstrap runs in the background once the application is ready and
+     * is retried until it succeeds, so the service also starts while OpenSearch is down. Writes use the read name until
+     * then (see {@link #writeTarget}); on a new environment an early write auto-creates a plain index under that name,
+     * which the bootstrap then adopts like any legacy index.
+     * Reindexing into a new version always continues in the background while the current version keeps serving.
+     */
+    @PostConstruct
+    public void bootstrapBeforeStartup() {
+        if (!enabled) {
+            log.info("Index management is disabled");
+            return;
+        }
+        if (requiredOnStartup) {
+            bootstrap().block(STARTUP_TIMEOUT);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrapInBackground() {
+        if (!enabled || requiredOnStartup) {
+            return;
+        }
+        running.add(bootstrap()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, STARTUP_RETRY_MIN_BACKOFF)
+                        .maxBackoff(STARTUP_RETRY_MAX_BACKOFF)
+                        .doBeforeRetry(signal -> log.warn("Bootstrapping indices failed, retrying: {}", signal.failure().getMessage())))
+                .subscribe(
+                        done -> {},
+                        error -> log.error("Bootstrapping indices failed", error)));
+    }
+
+    /**
+     * Stops the background bootstrap and any running migration; an interrupted migration or adoption is resumed on the
+     * next startup.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running.dispose();
+    }
+
+    Mono<Void> bootstrap() {
+        return Flux.fromIterable(INDICES)
+                .concatMap(definition -> ensureIndex(definition)
+                        .doOnSuccess(ignored -> writeAliasesReady.add(definition.alias())))
+                .then(putStoredScript());
+    }
+
+    private Mono<Void> ensureIndex(IndexDefinition definition) {
+        String alias = definition.alias();
+        ObjectNode settings = readJson(definition.settingsFile());
+        ObjectNode mappings = readJson(definition.mappingsFile());
+        String schemaHash = ContentHashUtils.sha256Hex((settings.toString() + mappings.toString()).getBytes(StandardCharsets.UTF_8))
+                .substring(0, 16);
+        mappings.putObject("_meta").put(SCHEMA_HASH, schemaHash);
+
+        return call(() -> client.indices().existsAlias(ExistsAliasRequest.of(builder -> builder.name(alias))))
+                .flatMap(aliasExists -> {
+                    if (aliasExists.value()) {
+                        return getAliasedIndex(alias)
+                                .flatMap(current -> getSchemaHash(current)
+                                        .flatMap(currentHash -> currentHash.equals(schemaHash)
+                                                ? ensureWriteAlias(alias, current)
+                                                : startMigration(alias, current, schemaHash, settings, mappings)));
+                    }
+
+                    return call(() -> client.indices().exists(ExistsRequest.of(builder -> builder.index(alias))))
+                            .flatMap(legacyExists -> legacyExists.value()
+                                    ? adoptLegacyIndex(alias).then(Mono.defer(() -> ensureIndex(definition)))
+                                    : createIndex(versionedName(alias, 1), settings, mappings, alias, writeAlias(alias))
+                                    .doOnSuccess(ignored -> log.info("Created index {} for alias {}", versionedName(alias, 1), alias)));
+                });
+    }
+
+    /**
+     * Moves a concrete index that carries the alias name to {@code {alias}_v0} behind both aliases, after which it is
+     * migrated like any other version and kept for rollback. The legacy index is write-blocked while it is cloned, so no
+     * write can be lost between the copy and the alias switch; writes fail for that short window instead.
+     * An existing {@code _v0} without aliases is left over from an adoption that was interrupted after the clone, or
+     * belongs to one running on another node; either way the adoption is resumed from the alias switch. A catch-up
+     * reindex first copies anything written to the legacy index after the clone, in case its write block was lifted.
+     */
+    private Mono<Void> adoptLegacyIndex(String alias) {
+        String target = versionedName(alias, 0);
+        return call(() -> client.indices().exists(ExistsRequest.of(builder -> builder.index(target))))
+                .flatMap(targetExists -> {
+                    if (targetExists.value()) {
+                        log.info("Resuming the move of legacy index {} to {}", alias, target);
+                        return setWriteBlock(alias, true)
+                                .then(reindex(alias, target))
+                                .then(adoptionAliasSwitch(alias, target));
+                    }
+                    log.info("Moving legacy index {} to {}", alias, target);
+                    return setWriteBlock(alias, true)
+                            .then(call(() -> client.indices().clone(CloneIndexRequest.of(builder -> builder
+                                    .index(alias)
+                                    .target(target)
+                                    .settings(WRITE_BLOCK_SETTING, JsonData.of(false))
+                                    .waitForActiveShards(WaitForActiveShards.of(shards -> shards.count(1)))))))
+                            .then(adoptionAliasSwitch(alias, target))
+                            .onErrorResume(error -> call(() -> client.indices().exists(ExistsRequest.of(builder -> builder.index(target))))
+                                    .flatMap(cloned -> cloned.value() ? Mono.<Void>empty() : setWriteBlock(alias, false))
+                                    .then(Mono.error(error)));
+                });
+    }
+
+    /**
+     * Replaces the legacy index by both aliases on the clone in one update, which deletes the legacy index.
+     */
+    private Mono<Void> adoptionAliasSwitch(String alias, String target) {
+        return call(() -> client.indices().updateAliases(UpdateAliasesRequest.of(builder -> builder
+                        .actions(action -> action.removeIndex(remove -> remove.index(alias)))
+                        .actions(action -> action.add(add -> add.index(target).alias(alias)))
+                        .actions(action -> action.add(add -> add.index(target).alias(writeAlias(alias)).isWriteIndex(true))))))
+                .then();
+    }
+
+    private Mono<Void> setWriteBlock(String index, boolean blocked) {
+        ObjectNode blockSettings = objectMapper.createObjectNode();
+        blockSettings.putObject("index").putObject("blocks").put("write", blocked);
+        return call(() -> client.indices().putSettings(PutIndicesSettingsRequest.of(builder -> builder
+                        .index(index)
+                        .settings(deserialize(blockSettings, IndexSettings._DESERIALIZER)))))
+                .then();
+    }
+
+    /**
+     * Creates the next version without aliases and starts filling it. The next version already exists when a migration
+     * was interrupted, or when another node is running it: with the same schema the migration is resumed, since the
+     * copy is idempotent; a leftover from an older schema is dropped and created again. Another node starting at the
+     * same time loses the create and leaves the migration to the winner.
+     */
+    private Mono<Void> startMigration(String alias, String current, String schemaHash, ObjectNode settings, ObjectNode mappings) {
+        String target = versionedName(alias, versionOf(alias, current) + 1);
+        ObjectNode bulkLoadSettings = settings.deepCopy();
+        ObjectNode indexSettings = bulkLoadSettings.has("index") ? (ObjectNode) bulkLoadSettings.get("index") : bulkLoadSettings.putObject("index");
+        indexSettings.put("refresh_interval", "-1");
+        indexSettings.put("number_of_replicas", 0);
+
+        Mono<Void> create = createIndex(target, bulkLoadSettings, mappings)
+                .doOnSuccess(ignored -> log.info("Schema of {} changed, reindexing {} into {}", alias, current, target));
+        return call(() -> client.indices().exists(ExistsRequest.of(builder -> builder.index(target))))
+                .flatMap(targetExists -> !targetExists.value()
+                        ? create
+                        : getSchemaHash(target).flatMap(targetHash -> {
+                            if (targetHash.equals(schemaHash)) {
+                                log.info("Resuming the reindex of {} into {}", current, target);
+                                return Mono.<Void>empty();
+                            }
+                            log.info("Dropping {}, left over from a migration to an older schema of {}", target, alias);
+                            return call(() -> client.indices().delete(DeleteIndexRequest.of(builder -> builder.index(target))))
+                                    .then(create);
+                        }))
+                .doOnSuccess(ignored -> running.add(migrate(alias, current, target, settings)
+                        .subscribe(
+                                done -> {},
+                                error -> log.error("Reindexing {} into {} failed, {} stays on {}: {}",
+                                        current, target, alias, current, error.getMessage()))))
+                .onErrorResume(error -> {
+                    log.info("Index {} could not be prepared, not migrating {} on this node: {}", target, alias, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Copies with external versioning, so a second pass only rewrites documents that changed during the first one.
+     * The catch-up pass runs again right after the alias flip to pick up writes that raced with it; deletes made
+     * during the copy are not replayed.
+     */
+    private Mono<Void> migrate(String alias, String source, String target, ObjectNode settings) {
+        return reindex(source, target)
+                .then(reindex(source, target))
+                .then(putSettings(target, settings))
+                .then(switchAliases(alias, source, target))
+                .then(reindex(source, target))
+                .doOnSuccess(ignored -> log.info("Alias {} now points at {}; {} is kept for rollback", alias, target, source));
+    }
+
+    private Mono<Void> reindex(String source, String target) {
+        return call(() -> client.reindex(ReindexRequest.of(builder -> builder
+                        .source(sourceBuilder -> sourceBuilder.index(source))
+                        .dest(destBuilder -> destBuilder.index(target).versionType(VersionType.External))
+                        .conflicts(Conflicts.Proceed)
+                        .waitForCompletion(false))))
+                .flatMap(response -> awaitTask(response.task()));
+    }
+
+    private Mono<Void> awaitTask(String taskId) {
+        return call(() -> client.tasks().get(GetTasksRequest.of(builder -> builder.taskId(taskId))))
+                .delaySubscription(reindexPollInterval)
+                .filter(GetTasksResponse::completed)
+                .repeatWhenEmpty(Integer.MAX_VALUE, emptyPolls -> emptyPolls)
+                .flatMap(response -> response.error() != null
+                        ? Mono.error(new IllegalStateException("Reindex task " + taskId + " failed: " + response.error().reason()))
+                        : Mono.empty());
+    }
+
+    private Mono<Void> switchAliases(String alias, String source, String target) {
+        List<Action> actions = new ArrayList<>();
+        actions.add(Action.of(action -> action.remove(remove -> remove.index(source).alias(alias))));
+        actions.add(Action.of(action -> action.remove(remove -> remove.index(source).alias(writeAlias(alias)))));
+        actions.add(Action.of(action -> action.add(add -> add.index(target).alias(alias))));
+        actions.add(Action.of(action -> action.add(add -> add.index(target).alias(writeAlias(alias)).isWriteIndex(true))));
+
+        return call(() -> client.indices().updateAliases(UpdateAliasesRequest.of(builder -> builder.actions(actions))))
+                .then();
+    }
+
+    private Mono<Void> ensureWriteAlias(String alias, String index) {
+        return call(() -> client.indices().existsAlias(ExistsAliasRequest.of(builder -> builder.name(writeAlias(alias)))))
+                .flatMap(exists -> exists.value()
+                        ? Mono.empty()
+                        : call(() -> client.indices().updateAliases(UpdateAliasesRequest.of(builder -> builder
+                                .actions(action -> action.add(add -> add.index(index).alias(writeAlias(alias)).isWriteIndex(true))))))
+                        .then());
+    }
+
+    private Mono<Void> createIndex(String index, ObjectNode settings, ObjectNode mappings, String... aliases) {
+        return call(() -> client.indices().create(CreateIndexRequest.of(builder -> {
+                    builder.index(index)
+                            .settings(deserialize(settings, IndexSettings._DESERIALIZER))
+                            .mappings(deserialize(mappings, TypeMapping._DESERIALIZER));
+                    for (String alias : aliases) {
+                        builder.aliases(alias, aliasBuilder -> aliasBuilder.isWriteIndex(alias.endsWith(WRITE_ALIAS_SUFFIX)));
+                    }
+                    return builder;
+                })))
+                .then();
+    }
+
+    /**
+     * Restores refresh interval and replicas, which are relaxed while the new version is bulk loaded.
+     */
+    private Mono<Void> putSettings(String index, ObjectNode settings) {
+        ObjectNode indexSettings = settings.has("index") ? (ObjectNode) settings.get("index") : settings;
+        ObjectNode dynamicSettings = objectMapper.createObjectNode();
+        ObjectNode dynamicIndexSettings = dynamicSettings.putObject("index");
+        dynamicIndexSettings.put("refresh_interval", indexSettings.path("refresh_interval").asText("1s"));
+        dynamicIndexSettings.put("number_of_replicas", indexSettings.path("number_of_replicas").asInt(1));
+
+        return call(() -> client.indices().putSettings(PutIndicesSettingsRequest.of(builder -> builder
+                        .index(index)
+                        .settings(deserialize(dynamicSettings, IndexSettings._DESERIALIZER)))))
+                .then();
+    }
+
+    private Mono<Void> putStoredScript() {
+        ObjectNode script = readJson("eqall-min-should-match-script.json");
+        return call(() -> client.putScript(PutScriptRequest.of(builder -> builder
+                        .id(SearchQueryUtils.EQALL_MIN_SHOULD_MATCH_SCRIPT)
+                        .script(scriptBuilder -> scriptBuilder
+                                .lang(script.path("lang").asText())
+                                .source(script.path("source").asText())))))
+                .then();
+    }
+
+    private Mono<String> getAliasedIndex(String alias) {
+        return call(() -> client.indices().getAlias(GetAliasRequest.of(builder -> builder.name(alias))))
+                .flatMap(response -> Mono.justOrEmpty(response.result().keySet().stream().findFirst()));
+    }
+
+    private Mono<String> getSchemaHash(String index) {
+        return call(() -> client.indices().getMapping(GetMappingRequest.of(builder -> builder.index(index))))
+                .map(response -> {
+                    Map<String, JsonData> meta = response.result().values().iterator().next().mappings().meta();
+                    JsonData hash = meta == null ? null : meta.get(SCHEMA_HASH);
+                    return hash == null ? "" : hash.to(String.class);
+                });
+    }
+
+    private int versionOf(String alias, String index) {
+        String prefix = alias + VERSION_SEPARATOR;
+        return index.startsWith(prefix) ? Integer.parseInt(index.substring(prefix.length())) : 0;
+    }
+
+    private String versionedName(String alias, int version) {
+        return alias + VERSION_SEPARATOR + version;
+    }
+
+    @SneakyThrows
+    private ObjectNode readJson(String file) {
+        try (InputStream inputStream = new ClassPathResource(RESOURCE_ROOT + file).getInputStream()) {
+            return (ObjectNode) objectMapper.readTree(inputStream);
+        }
+    }
+
+    private <R> R deserialize(ObjectNode json, JsonpDeserializer<R> deserializer) {
+        return deserializer.deserialize(jsonpMapper.jsonProvider().createParser(new StringReader(json.toString())), jsonpMapper);
+    }
+
+    private <R> Mono<R> call(OpenSearchCall<R> call) {
+        return Mono.fromFuture(() -> execute(call));
+    }
+
+    @SneakyThrows
+    private <R> CompletableFuture<R> execute(OpenSearchCall<R> call) {
+        return call.execute();
+    }
+
+    @FunctionalInterface
+    private interface OpenSearchCall<R> {
+        CompletableFuture<R> execute() throws Exception;
+    }
+
+    private record IndexDefinition(String alias, String settingsFile, String mappingsFile) {
+    }
+}
@@ -16,7 +16,6 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 
 @Repository
 @RequiredArgsConstructor
@@ -77,21 +76,6 @@ public class S3ContentRepository {
         });
     }
 
-    public Mono<ByteBuffer> readGameFile(String fileName) {
-        String keyName = "games/" + fileName;
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                .bucket(bucketName)
-                .key(keyName)
-                .build();
-
-        return Mono.fromFuture(() ->
-                s3Client.getObject(getObjectRequest, AsyncResponseTransformer.toBytes())
-        ).flatMap(getObjectResponse -> {
-            ByteBuffer byteBuffer = getObjectResponse.asByteBuffer();
-            return Mono.just(byteBuffer);
-        });
-    }
-
     public Mono<Boolean> deleteFile(String fileName) {
         return Mono.deferContextual(ctx -> {
             DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
@@ -107,44 +91,4 @@ public class S3ContentRepository {
             });
         });
     }
-
-    public Mono<String> uploadGameContent(String fileName, String htmlContent) {
-        return uploadGameFile(fileName, htmlContent, "text/html");
-    }
-
-    public Mono<String> uploadGameFile(String fileName, String content, String contentType) {
-        return Mono.deferContextual(ctx -> {
-            String keyName = "games/" + fileName;
-            byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
-
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(keyName)
-                    .contentType(contentType)
-                    .contentLength((long) contentBytes.length)
-                    .build();
-
-            return Mono.fromFuture(() ->
-                            s3Client.putObject(putObjectRequest, AsyncRequestBody.fromBytes(contentBytes))
-                    ).map(PutObjectResponse::eTag)
-                    .map(etag -> String.format("https://%s.s3.amazonaws.com/%s", bucketName, keyName));
-        });
-    }
-
-    public Mono<Boolean> deleteGameFile(String fileName) {
-        String keyName = "games/" + fileName;
-        DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                .bucket(bucketName)
-                .key(keyName)
-                .build();
-
-        return Mono.fromFuture(() ->
-                s3Client.deleteObject(deleteObjectRequest)
-        ).map(deleteObjectResponse -> true);
-    }
-
-    public String getPublicUrl(String fileName) {
-        String keyName = "games/" + fileName;
-        return String.format("https://%s.s3.amazonaws.com/%s", bucketName, keyName);
-    }
 }
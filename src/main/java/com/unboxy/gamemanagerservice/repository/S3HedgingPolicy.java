@@ -0,0 +1,133 @@
+package com.unboxy.gamemanagerservice.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Optional hedging for small S3 GETs. When a request has not answered within the rolling latency percentile,
+ * a backup request is sent and whichever responds first wins; the loser is cancelled.
+ * Backup requests are limited by a token budget that grows with the primary request rate.
+ */
+@Component
+@RequiredArgsConstructor
+public class S3HedgingPolicy {
+    private static final long TOKEN_SCALE = 1_000;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${aws.s3.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${aws.s3.hedging.percentile:0.95}")
+    private double percentile;
+
+    @Value("${aws.s3.hedging.minDelayMillis:20}")
+    private long minDelayMillis;
+
+    @Value("${aws.s3.hedging.minSamples:100}")
+    private long minSamples;
+
+    @Value("${aws.s3.hedging.budgetRatio:0.05}")
+    private double budgetRatio;
+
+    @Value("${aws.s3.hedging.maxBurst:10}")
+    private long maxBurst;
+
+    private final AtomicLong budgetTokens = new AtomicLong();
+
+    private Timer latency;
+    private Counter hedges;
+    private Counter hedgeWins;
+    private Counter budgetExhausted;
+
+    @PostConstruct
+    void init() {
+        latency = Timer.builder("s3.get.latency")
+                .publishPercentiles(percentile)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        hedges = meterRegistry.counter("s3.get.hedges", "outcome", "sent");
+        hedgeWins = meterRegistry.counter("s3.get.hedges", "outcome", "won");
+        budgetExhausted = meterRegistry.counter("s3.get.hedges", "outcome", "budget_exhausted");
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> request) {
+        if (!enabled) {
+            return request.get();
+        }
+
+        return Mono.defer(() -> {
+            depositToken();
+            Mono<T> primary = timed(request);
+
+            Duration threshold = hedgeThreshold();
+            if (threshold == null) {
+                return primary;
+            }
+
+            Mono<T> backup = Mono.delay(threshold)
+                    .flatMap(tick -> {
+                        if (!tryWithdrawToken()) {
+                            budgetExhausted.increment();
+                            return Mono.never();
+                        }
+                        hedges.increment();
+                        return timed(request).doOnNext(result -> hedgeWins.increment());
+                    });
+
+            // First signal wins, the other subscription is cancelled (which aborts its in-flight S3 call)
+            return Mono.firstWithSignal(primary, backup);
+        });
+    }
+
+    private <T> Mono<T> timed(Supplier<Mono<T>> request) {
+        return Mono.defer(request)
+                .elapsed()
+                .doOnNext(result -> latency.record(result.getT1(), TimeUnit.MILLISECONDS))
+                .map(result -> result.getT2());
+    }
+
+    private Duration hedgeThreshold() {
+        var snapshot = latency.takeSnapshot();
+        if (snapshot.count() < minSamples) {
+            return null;
+        }
+
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                long millis = Math.max(minDelayMillis, (long) value.value(TimeUnit.MILLISECONDS));
+                return Duration.ofMillis(millis);
+            }
+        }
+        return null;
+    }
+
+    private void depositToken() {
+        long deposit = (long) (budgetRatio * TOKEN_SCALE);
+        long cap = maxBurst * TOKEN_SCALE;
+        budgetTokens.updateAndGet(tokens -> Math.min(cap, tokens + deposit));
+    }
+
+    private boolean tryWithdrawToken() {
+        long current;
+        do {
+            current = budgetTokens.get();
+            if (current < TOKEN_SCALE) {
+                return false;
+            }
+        } while (!budgetTokens.compareAndSet(current, current - TOKEN_SCALE));
+        return true;
+    }
+}
@@ -0,0 +1,303 @@
+package com.unboxy.gamemanagerservice.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.json.stream.JsonGenerator;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.opensearch.client.json.JsonpSerializable;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Latency and shard statistics per index and query shape. The shape is the search body with every value masked, so
+ * searches that only differ in the user, the text or the page share one shape while different operators, fields,
+ * aggregations or sorts do not. Slow searches are logged, and at most once per interval and shape they are repeated
+ * with the profile API in the background so the log shows where the time went.
+ */
+@Component
+@Slf4j
+public class SearchInstrumentation {
+    static final String OTHER_SHAPE = "other";
+
+    private static final double PERCENTILE = 0.95;
+    private static final int FINGERPRINT_LENGTH = 12;
+    private static final int MAX_SHAPE_LENGTH = 2_000;
+    // Values under these keys name fields or select behaviour, so they are part of the shape
+    private static final Set<String> SHAPE_KEYS = Set.of("field", "fields", "path", "type", "operator", "order");
+
+    private final MeterRegistry meterRegistry;
+    private final JacksonJsonpMapper jsonpMapper;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long slowThresholdMillis;
+    private final boolean profileSlowQueries;
+    private final long profileIntervalMillis;
+    private final int maxShapes;
+
+    private final Map<ShapeKey, ShapeMetrics> shapes = new ConcurrentHashMap<>();
+
+    public SearchInstrumentation(MeterRegistry meterRegistry,
+                                 @Qualifier("opensearchJsonpMapper") JacksonJsonpMapper jsonpMapper,
+                                 ObjectMapper objectMapper,
+                                 @Value("${opensearch.searchMetrics.enabled:true}") boolean enabled,
+                                 @Value("${opensearch.searchMetrics.slowThresholdMillis:500}") long slowThresholdMillis,
+                                 @Value("${opensearch.searchMetrics.profileSlowQueries:false}") boolean profileSlowQueries,
+                                 @Value("${opensearch.searchMetrics.profileIntervalMillis:60000}") long profileIntervalMillis,
+                                 @Value("${opensearch.searchMetrics.maxShapes:200}") int maxShapes) {
+        this.meterRegistry = meterRegistry;
+        this.jsonpMapper = jsonpMapper;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.profileSlowQueries = profileSlowQueries;
+        this.profileIntervalMillis = profileIntervalMillis;
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * Runs the search and records it under its index and shape. A profiled repeat of a slow search goes through the
+     * same {@code search} function but is not recorded itself.
+     */
+    public <T> Mono<SearchResponse<T>> instrument(String index, SearchRequest request,
+                                                  Function<SearchRequest, Mono<SearchResponse<T>>> search) {
+        if (!enabled) {
+            return Mono.defer(() -> search.apply(request));
+        }
+
+        return Mono.defer(() -> search.apply(request))
+                .elapsed()
+                .map(timed -> {
+                    try {
+                        record(index, request, timed.getT1(), timed.getT2(), search);
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to record search metrics for {}", index, e);
+                    }
+                    return timed.getT2();
+                });
+    }
+
+    /**
+     * Shapes ordered by their rolling p95 client latency, slowest first.
+     */
+    public List<ShapeSummary> topShapes(int limit) {
+        return shapes.values().stream()
+                .map(ShapeMetrics::summary)
+                .sorted(Comparator.comparingDouble(ShapeSummary::clientP95Millis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private <T> void record(String index, SearchRequest request, long clientMillis, SearchResponse<T> response,
+                            Function<SearchRequest, Mono<SearchResponse<T>>> search) {
+        String shape = shapeOf(request);
+        ShapeMetrics metrics = metricsFor(index, shape);
+
+        metrics.clientLatency.record(clientMillis, TimeUnit.MILLISECONDS);
+        metrics.serverLatency.record(response.took(), TimeUnit.MILLISECONDS);
+        if (response.timedOut()) {
+            metrics.timedOut.increment();
+        }
+        if (response.shards() != null && response.shards().failed().intValue() > 0) {
+            metrics.shardFailures.increment(response.shards().failed().doubleValue());
+        }
+
+        if (clientMillis < slowThresholdMillis) {
+            return;
+        }
+        metrics.slow.increment();
+        log.warn("Slow search on {} [{}]: {} ms client, {} ms server, {}/{} shards failed, timed out: {}, shape: {}",
+                index, metrics.fingerprint, clientMillis, response.took(),
+                response.shards() == null ? 0 : response.shards().failed(),
+                response.shards() == null ? 0 : response.shards().total(),
+                response.timedOut(), metrics.shape);
+
+        if (profileSlowQueries && metrics.tryStartProfile(profileIntervalMillis)) {
+            Mono.defer(() -> search.apply(profiled(request)))
+                    .subscribe(profiledResponse -> log.warn("Profile of slow search on {} [{}]: {}",
+                                    index, metrics.fingerprint,
+                                    profiledResponse.profile() == null ? "none" : toJson(profiledResponse.profile())),
+                            error -> log.warn("Profiling slow search on {} [{}] failed", index, metrics.fingerprint, error));
+        }
+    }
+
+    private ShapeMetrics metricsFor(String index, String shape) {
+        ShapeKey key = new ShapeKey(index, shape);
+        ShapeMetrics metrics = shapes.get(key);
+        if (metrics != null) {
+            return metrics;
+        }
+        // Shapes come from code paths, but criteria can combine clauses freely; keep the meter count bounded
+        if (shapes.size() >= maxShapes) {
+            return shapes.computeIfAbsent(new ShapeKey(index, OTHER_SHAPE), this::newMetrics);
+        }
+        return shapes.computeIfAbsent(key, this::newMetrics);
+    }
+
+    private ShapeMetrics newMetrics(ShapeKey key) {
+        String fingerprint = OTHER_SHAPE.equals(key.shape())
+                ? OTHER_SHAPE
+                : Hashing.sha256().hashString(key.index() + "\0" + key.shape(), StandardCharsets.UTF_8)
+                        .toString().substring(0, FINGERPRINT_LENGTH);
+        Tags tags = Tags.of("index", key.index(), "shape", fingerprint);
+
+        return new ShapeMetrics(key.index(), fingerprint, StringUtils.abbreviate(key.shape(), MAX_SHAPE_LENGTH),
+                latencyTimer("client", tags),
+                latencyTimer("server", tags),
+                meterRegistry.counter("opensearch.search.slow", tags),
+                meterRegistry.counter("opensearch.search.timed_out", tags),
+                meterRegistry.counter("opensearch.search.shard_failures", tags));
+    }
+
+    private Timer latencyTimer(String side, Tags tags) {
+        return Timer.builder("opensearch.search.latency")
+                .tags(tags)
+                .tag("side", side)
+                .publishPercentiles(PERCENTILE)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+    }
+
+    @SneakyThrows
+    String shapeOf(SearchRequest request) {
+        return mask(objectMapper.readTree(toJson(request))).toString();
+    }
+
+    private JsonNode mask(JsonNode node) {
+        if (node.isObject()) {
+            var masked = objectMapper.createObjectNode();
+            TreeSet<String> names = new TreeSet<>();
+            node.fieldNames().forEachRemaining(names::add);
+            names.forEach(name -> masked.set(name, SHAPE_KEYS.contains(name) ? node.get(name) : mask(node.get(name))));
+            return masked;
+        }
+        if (node.isArray()) {
+            // The number of clauses or values is not part of the shape, only which kinds occur
+            TreeSet<String> elements = new TreeSet<>();
+            node.forEach(element -> elements.add(element.isContainerNode() ? mask(element).toString() : "?"));
+            var masked = objectMapper.createArrayNode();
+            elements.forEach(masked::add);
+            return masked;
+        }
+        return objectMapper.getNodeFactory().textNode("?");
+    }
+
+    private String toJson(JsonpSerializable value) {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(writer)) {
+            value.serialize(generator, jsonpMapper);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * The same search with profiling enabled; copies everything our repositories set on a search request.
+     */
+    private SearchRequest profiled(SearchRequest request) {
+        return SearchRequest.of(builder -> builder
+                .index(request.index())
+                .routing(request.routing())
+                .pit(request.pit())
+                .query(request.query())
+                .postFilter(request.postFilter())
+                .aggregations(request.aggregations())
+                .sort(request.sort())
+                .searchAfter(request.searchAfter())
+                .collapse(request.collapse())
+                .source(request.source())
+                .from(request.from())
+                .size(request.size())
+                .trackTotalHits(request.trackTotalHits())
+                .requestCache(false)
+                .profile(true));
+    }
+
+    private record ShapeKey(String index, String shape) {
+    }
+
+    private static final class ShapeMetrics {
+        final String index;
+        final String fingerprint;
+        final String shape;
+        final Timer clientLatency;
+        final Timer serverLatency;
+        final Counter slow;
+        final Counter timedOut;
+        final Counter shardFailures;
+        final AtomicLong lastProfiledAt = new AtomicLong();
+
+        ShapeMetrics(String index, String fingerprint, String shape, Timer clientLatency, Timer serverLatency,
+                     Counter slow, Counter timedOut, Counter shardFailures) {
+            this.index = index;
+            this.fingerprint = fingerprint;
+            this.shape = shape;
+            this.clientLatency = clientLatency;
+            this.serverLatency = serverLatency;
+            this.slow = slow;
+            this.timedOut = timedOut;
+            this.shardFailures = shardFailures;
+        }
+
+        boolean tryStartProfile(long intervalMillis) {
+            long now = System.currentTimeMillis();
+            long last = lastProfiledAt.get();
+            return now - last >= intervalMillis && lastProfiledAt.compareAndSet(last, now);
+        }
+
+        ShapeSummary summary() {
+            return new ShapeSummary(index, fingerprint, shape,
+                    clientLatency.count(),
+                    clientLatency.mean(TimeUnit.MILLISECONDS),
+                    p95(clientLatency),
+                    clientLatency.max(TimeUnit.MILLISECONDS),
+                    serverLatency.mean(TimeUnit.MILLISECONDS),
+                    p95(serverLatency),
+                    (long) slow.count(),
+                    (long) timedOut.count(),
+                    (long) shardFailures.count());
+        }
+
+        private static double p95(Timer timer) {
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == PERCENTILE) {
+                    return value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Percentiles and max cover the last minute; counts and means are since startup.
+     */
+    public record ShapeSummary(String index, String fingerprint, String shape, long count,
+                               double clientMeanMillis, double clientP95Millis, double clientMaxMillis,
+                               double serverMeanMillis, double serverP95Millis,
+                               long slowCount, long timedOutCount, long shardFailures) {
+    }
+}
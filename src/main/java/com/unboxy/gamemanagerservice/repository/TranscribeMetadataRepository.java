@@ -1,16 +1,20 @@
 package com.unboxy.gamemanagerservice.repository;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.unboxy.gamemanagerservice.model.*;
 import com.unboxy.gamemanagerservice.utils.SearchQueryUtils;
 import com.unboxy.gamemanagerservice.utils.UserUtils;
 import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.query_dsl.BoolQuery;
+import org.opensearch.client.opensearch._types.query_dsl.QueryBuilders;
 import org.opensearch.client.opensearch.core.SearchRequest;
-import org.opensearch.client.opensearch.core.search.Hit;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -21,8 +25,13 @@ import java.util.stream.Collectors;
 public class TranscribeMetadataRepository extends AbstractElasticsearchMetadataRepository<TranscribeCommonMetadata> {
     protected static final String INDEX = "transcription";
 
-    public TranscribeMetadataRepository(OpenSearchAsyncClient client, SearchQueryUtils searchQueryUtils) {
-        super(client, searchQueryUtils);
+    private static final SourceProjection CARD_PROJECTION = SourceProjection.excluding(List.of("transcript", "audioSegments"));
+    // Matching segments come back as inner hits, so the stored list is never needed in search results
+    private static final SourceProjection DETAIL_PROJECTION = SourceProjection.excluding(List.of("audioSegments"));
+
+    public TranscribeMetadataRepository(OpenSearchAsyncClient client, SearchQueryUtils searchQueryUtils, ObjectMapper objectMapper,
+            SearchInstrumentation searchInstrumentation, OpenSearchIndexManager indexManager) {
+        super(client, searchQueryUtils, objectMapper, searchInstrumentation, indexManager);
     }
 
     public Mono<TranscribeCommonMetadata> save(String id, TranscribeCommonMetadata metadata) {
@@ -31,7 +40,16 @@ public class TranscribeMetadataRepository extends AbstractElasticsearchMetadataR
 
     @Override
     protected Optional<SeqNoPrimaryTerm> getSeqNoPrimaryTerm(TranscribeCommonMetadata metadata) {
-        return Optional.empty();
+        if (metadata.getSeqNo() == null || metadata.getPrimaryTerm() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new SeqNoPrimaryTerm(metadata.getSeqNo(), metadata.getPrimaryTerm()));
+    }
+
+    @Override
+    protected void setSeqNoPrimaryTerm(TranscribeCommonMetadata metadata, SeqNoPrimaryTerm seqNoPrimaryTerm) {
+        metadata.setSeqNo(seqNoPrimaryTerm.sequenceNumber());
+        metadata.setPrimaryTerm(seqNoPrimaryTerm.primaryTerm());
     }
 
     @Override
@@ -44,35 +62,106 @@ public class TranscribeMetadataRepository extends AbstractElasticsearchMetadataR
         return TranscribeCommonMetadata.class;
     }
 
+    @Override
+    protected SourceProjection getSourceProjection(SourceView view) {
+        return switch (view) {
+            case CARD -> CARD_PROJECTION;
+            case DETAIL -> DETAIL_PROJECTION;
+            case FULL -> SourceProjection.FULL;
+        };
+    }
+
     @Override
     protected Map<String, Float> getTextSearchFields() {
         return Map.of("audioSegments.transcript", 1.0f);
     }
 
-    public Mono<SearchResult> findByCriteria(SearchCriteria criteria) {
-        return Mono.deferContextual(ctx -> {
-            SearchRequest request = toSearchRequest(criteria, UserUtils.getUserId(ctx));
+    public Mono<SearchResult<TranscribeCommonMetadata>> findByCriteria(SearchCriteria criteria) {
+        return findByCriteria(criteria, CARD_PROJECTION);
+    }
+
+    public Mono<SearchResult<TranscribeCommonMetadata>> findByCriteria(SearchCriteria criteria, SourceProjection projection) {
+        return Mono.deferContextual(ctx -> searchWithPit(SearchCursor.decode(criteria.getCursor()), pitId -> {
+            SearchRequest request = toSearchRequest(criteria, UserUtils.getUserId(ctx), projection, pitId);
 
             return doSearch(request)
                     .map(result -> {
-                        List<TranscribeCommonMetadata> resultHits = result.hits().hits().stream().map(Hit::source).toList();
+                        List<TranscribeCommonMetadata> resultHits = result.hits().hits().stream().map(this::fromHit).toList();
                         long total = result.hits().total().value();
                         PageImpl<TranscribeCommonMetadata> page = new PageImpl<>(resultHits, toPagable(criteria), total);
 
-                        return new SearchResult(criteria.getSearchText(),
+                        return new SearchResult<>(criteria.getSearchText(),
                                 resultHits,
-                                new Pagination(page.getSize(), page.getNumber(), page.getTotalPages(), page.getTotalElements()));
+                                new Pagination(page.getSize(), page.getNumber(), page.getTotalPages(), page.getTotalElements()),
+                                nextCursor(result, page.getSize(), pitId));
                     });
-        });
+        }, SearchResult::nextCursor));
+    }
+
+    public Flux<TranscribeCommonMetadata> streamByUserId(String userId, int pageSize) {
+        return streamByFields(Map.of("creationUserInfo.id", userId), pageSize, SourceProjection.FULL);
+    }
+
+    /**
+     * Transcripts by id without their stored segments, in no particular order; used to attach the parents of segment hits.
+     */
+    public Flux<TranscribeCommonMetadata> findByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+
+        SearchRequest.Builder requestBuilder = newSearchRequestBuilder()
+                .query(QueryBuilders.ids().values(List.copyOf(ids)).build().toQuery())
+                .size(ids.size());
+        toSourceConfig(DETAIL_PROJECTION).ifPresent(requestBuilder::source);
+
+        return doSearch(requestBuilder.build())
+                .flatMapIterable(response -> response.hits().hits().stream()
+                        .map(this::fromHit)
+                        .toList());
+    }
+
+    /**
+     * Transcripts that still keep their segments in the document, in no particular order; the segment backfill works
+     * through them until none are left.
+     */
+    public Flux<TranscribeCommonMetadata> findWithStoredSegments(Collection<String> excludedIds, int size) {
+        BoolQuery.Builder boolBuilder = QueryBuilders.bool()
+                .filter(QueryBuilders.nested()
+                        .path("audioSegments")
+                        .query(QueryBuilders.matchAll().build().toQuery())
+                        .build()
+                        .toQuery());
+        if (!excludedIds.isEmpty()) {
+            boolBuilder.mustNot(QueryBuilders.ids().values(List.copyOf(excludedIds)).build().toQuery());
+        }
+
+        SearchRequest request = newSearchRequestBuilder()
+                .query(boolBuilder.build().toQuery())
+                .size(size)
+                .build();
+
+        return doSearch(request)
+                .flatMapIterable(response -> response.hits().hits().stream()
+                        .map(this::fromHit)
+                        .toList());
+    }
+
+    /**
+     * Drops the segments stored in the document once they live in the segment index.
+     */
+    public Mono<String> removeStoredSegments(String id) {
+        return scriptedUpdate(id, "ctx._source.remove('audioSegments')", Map.of())
+                .thenReturn(id);
     }
 
-    public Mono<SearchResult> searchAudioSegments(SearchCriteria criteria) {
-        return Mono.deferContextual(ctx -> {
-            SearchRequest request = toSearchRequest(criteria, UserUtils.getUserId(ctx));
+    public Mono<SearchResult<TranscribeCommonMetadata>> searchAudioSegments(SearchCriteria criteria) {
+        return Mono.deferContextual(ctx -> searchWithPit(SearchCursor.decode(criteria.getCursor()), pitId -> {
+            SearchRequest request = toSearchRequest(criteria, UserUtils.getUserId(ctx), DETAIL_PROJECTION, pitId);
 
             return doSearch(request)
                     .map(result -> {
-                        List<TranscribeCommonMetadata> resultHits = result.hits().hits().stream().map(Hit::source).toList();
+                        List<TranscribeCommonMetadata> resultHits = result.hits().hits().stream().map(this::fromHit).toList();
                         var innerHits = result.hits().hits().stream()
                                 .collect(Collectors.toMap(
                                         hit -> hit.source().getId(),  // Key: transcriptId
@@ -93,10 +182,11 @@ public class TranscribeMetadataRepository extends AbstractElasticsearchMetadataR
                         long total = result.hits().total().value();
                         PageImpl<TranscribeCommonMetadata> page = new PageImpl<>(resultHits, toPagable(criteria), total);
 
-                        return new SearchResult(criteria.getSearchText(),
+                        return new SearchResult<>(criteria.getSearchText(),
                                 resultHits,
-                                new Pagination(page.getSize(), page.getNumber(), page.getTotalPages(), page.getTotalElements()));
+                                new Pagination(page.getSize(), page.getNumber(), page.getTotalPages(), page.getTotalElements()),
+                                nextCursor(result, page.getSize(), pitId));
                     });
-        });
+        }, SearchResult::nextCursor));
     }
 }
@@ -0,0 +1,202 @@
+package com.unboxy.gamemanagerservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unboxy.gamemanagerservice.model.Pagination;
+import com.unboxy.gamemanagerservice.model.SearchCriteria;
+import com.unboxy.gamemanagerservice.model.TranscriptSegment;
+import com.unboxy.gamemanagerservice.utils.SearchQueryUtils;
+import lombok.SneakyThrows;
+import org.apache.commons.lang3.tuple.Pair;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch._types.SortOptions;
+import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.aggregations.Aggregate;
+import org.opensearch.client.opensearch._types.aggregations.Aggregation;
+import org.opensearch.client.opensearch._types.query_dsl.BoolQuery;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch._types.query_dsl.QueryBuilders;
+import org.opensearch.client.opensearch.core.DeleteByQueryRequest;
+import org.opensearch.client.opensearch.core.DeleteByQueryResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.search.FieldCollapse;
+import org.opensearch.client.opensearch.core.search.InnerHits;
+import org.opensearch.client.opensearch.core.search.TrackHits;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Companion index of {@code transcription}: every audio segment is a flat document routed by its transcript id, so all
+ * segments of a transcript live on one shard and can be written, read and deleted without touching the transcript itself.
+ */
+@Repository
+public class TranscriptSegmentRepository extends AbstractElasticsearchMetadataRepository<TranscriptSegment> {
+    protected static final String INDEX = "transcription-segments";
+
+    private static final String SEGMENTS_INNER_HITS = "segments";
+    private static final String TRANSCRIPT_COUNT = "transcripts";
+    private static final int MAX_SEGMENTS_PER_TRANSCRIPT = 10_000;
+
+    public TranscriptSegmentRepository(OpenSearchAsyncClient client, SearchQueryUtils searchQueryUtils, ObjectMapper objectMapper,
+            SearchInstrumentation searchInstrumentation, OpenSearchIndexManager indexManager) {
+        super(client, searchQueryUtils, objectMapper, searchInstrumentation, indexManager);
+    }
+
+    @Override
+    protected Optional<SeqNoPrimaryTerm> getSeqNoPrimaryTerm(TranscriptSegment segment) {
+        if (segment.getSeqNo() == null || segment.getPrimaryTerm() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new SeqNoPrimaryTerm(segment.getSeqNo(), segment.getPrimaryTerm()));
+    }
+
+    @Override
+    protected void setSeqNoPrimaryTerm(TranscriptSegment segment, SeqNoPrimaryTerm seqNoPrimaryTerm) {
+        segment.setSeqNo(seqNoPrimaryTerm.sequenceNumber());
+        segment.setPrimaryTerm(seqNoPrimaryTerm.primaryTerm());
+    }
+
+    @Override
+    protected String getIndexCoordinates() {
+        return INDEX;
+    }
+
+    @Override
+    protected String getRouting(TranscriptSegment segment) {
+        return segment.getTranscriptId();
+    }
+
+    @Override
+    protected Class<TranscriptSegment> getMetadataClassType() {
+        return TranscriptSegment.class;
+    }
+
+    @Override
+    protected Map<String, Float> getTextSearchFields() {
+        return Map.of("transcript", 1.0f);
+    }
+
+    @Override
+    protected List<Pair<String, SortOrder>> getSortFields() {
+        return List.of(Pair.of("startTime", SortOrder.Asc));
+    }
+
+    /**
+     * Writes one chunk of a transcript's segments; unchanged segments are simply overwritten with the same content.
+     */
+    public Flux<TranscriptSegment> saveSegments(List<TranscriptSegment> segments) {
+        Map<String, TranscriptSegment> segmentsById = new LinkedHashMap<>();
+        segments.forEach(segment -> segmentsById.put(segment.getId(), segment));
+        return updateAll(segmentsById);
+    }
+
+    /**
+     * All segments of a transcript in time order, read from the single shard the transcript is routed to.
+     */
+    public Flux<TranscriptSegment> findByTranscriptId(String transcriptId) {
+        SearchRequest request = newSearchRequestBuilder()
+                .routing(transcriptId)
+                .query(transcriptQuery(transcriptId))
+                .sort(toSortOptions(getSortFields()))
+                .size(MAX_SEGMENTS_PER_TRANSCRIPT)
+                .build();
+
+        return doSearch(request)
+                .flatMapIterable(response -> response.hits().hits().stream()
+                        .map(this::fromHit)
+                        .toList());
+    }
+
+    /**
+     * Removes the segments of a transcript, or only those from {@code fromSegmentId} on when a newer result has fewer segments.
+     */
+    public Mono<Long> deleteByTranscriptId(String transcriptId, Integer fromSegmentId) {
+        BoolQuery.Builder boolBuilder = QueryBuilders.bool().filter(transcriptQuery(transcriptId));
+        if (fromSegmentId != null) {
+            boolBuilder.filter(QueryBuilders.range()
+                    .field("segmentId")
+                    .gte(JsonData.of(fromSegmentId))
+                    .build()
+                    .toQuery());
+        }
+
+        return doDeleteByQuery(DeleteByQueryRequest.of(builder -> builder
+                        .index(getWriteIndexCoordinates())
+                        .routing(transcriptId)
+                        .query(boolBuilder.build().toQuery())))
+                .map(response -> response.deleted() == null ? 0L : response.deleted());
+    }
+
+    /**
+     * Flat segment search: matching segments are collapsed per transcript, with the best matches of each transcript as inner
+     * hits in time order. A cardinality aggregation counts the matching transcripts for pagination.
+     */
+    public Mono<SegmentSearchResponse> searchSegments(SearchCriteria criteria, String userId, int segmentsPerTranscript) {
+        BoolQuery.Builder boolBuilder = QueryBuilders.bool();
+        searchQueryUtils.addTextSearchQuery(boolBuilder, criteria, getTextSearchFields());
+        searchQueryUtils.addSearchCriteriaFilterContext(boolBuilder, criteria);
+        boolBuilder.filter(QueryBuilders.term()
+                .field("userId")
+                .value(FieldValue.of(userId))
+                .build()
+                .toQuery());
+
+        Pageable pageable = toPagable(criteria);
+        SearchRequest request = newSearchRequestBuilder()
+                .query(boolBuilder.build().toQuery())
+                .from(Math.toIntExact(pageable.getOffset()))
+                .size(pageable.getPageSize())
+                .trackTotalHits(TrackHits.of(trackHits -> trackHits.enabled(false)))
+                .collapse(FieldCollapse.of(collapse -> collapse
+                        .field("transcriptId")
+                        .innerHits(InnerHits.of(innerHits -> innerHits
+                                .name(SEGMENTS_INNER_HITS)
+                                .size(segmentsPerTranscript)
+                                .sort(SortOptions.of(sort -> sort.field(field -> field.field("startTime").order(SortOrder.Asc))))))))
+                .aggregations(TRANSCRIPT_COUNT, Aggregation.of(aggregation -> aggregation
+                        .cardinality(cardinality -> cardinality.field("transcriptId"))))
+                .build();
+
+        return doSearch(request)
+                .map(response -> {
+                    Map<String, List<TranscriptSegment>> segmentsByTranscript = new LinkedHashMap<>();
+                    response.hits().hits().forEach(hit -> segmentsByTranscript.put(hit.source().getTranscriptId(),
+                            hit.innerHits().get(SEGMENTS_INNER_HITS).hits().hits().stream()
+                                    .map(innerHit -> innerHit.source().to(TranscriptSegment.class))
+                                    .toList()));
+                    Aggregate transcripts = response.aggregations().get(TRANSCRIPT_COUNT);
+                    long total = transcripts == null ? segmentsByTranscript.size() : transcripts.cardinality().value();
+                    return new SegmentSearchResponse(segmentsByTranscript,
+                            Pagination.of(pageable.getPageNumber(), pageable.getPageSize(), total));
+                });
+    }
+
+    private Query transcriptQuery(String transcriptId) {
+        return QueryBuilders.term()
+                .field("transcriptId")
+                .value(FieldValue.of(transcriptId))
+                .build()
+                .toQuery();
+    }
+
+    @SneakyThrows
+    private Mono<DeleteByQueryResponse> doDeleteByQuery(DeleteByQueryRequest request) {
+        return Mono.fromFuture(client.deleteByQuery(request));
+    }
+
+    /**
+     * @param segmentsByTranscript matched segments per transcript id, in result order
+     * @param pagination           paging over transcripts; the total is an approximate count of matching transcripts
+     */
+    public record SegmentSearchResponse(Map<String, List<TranscriptSegment>> segmentsByTranscript, Pagination pagination) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.unboxy.gamemanagerservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unboxy.gamemanagerservice.model.ExportRecord;
+import com.unboxy.gamemanagerservice.model.GameGenerationMetadata;
+import com.unboxy.gamemanagerservice.repository.GameMetadataRepository;
+import com.unboxy.gamemanagerservice.repository.TranscribeMetadataRepository;
+import com.unboxy.gamemanagerservice.store.ContentNotFoundException;
+import com.unboxy.gamemanagerservice.store.ContentStore;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a user's games and transcripts as NDJSON, one {@link ExportRecord} per line. Documents are read through a
+ * point-in-time page by page as the client consumes the response, and every line is encoded into its own buffer, so
+ * memory stays bounded by a few pages however large the account is. Game content is fetched for a few games ahead
+ * while keeping the order of the games.
+ */
+@Service
+public class ExportService {
+    public static final String GAMES = "games";
+    public static final String TRANSCRIPTS = "transcripts";
+
+    private static final byte NEWLINE = '\n';
+
+    private final GameMetadataRepository gameMetadataRepository;
+    private final TranscribeMetadataRepository transcribeMetadataRepository;
+    private final GameBundleService gameBundleService;
+    private final ContentStore contentStore;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final int contentConcurrency;
+
+    public ExportService(GameMetadataRepository gameMetadataRepository,
+                         TranscribeMetadataRepository transcribeMetadataRepository,
+                         GameBundleService gameBundleService,
+                         ContentStore contentStore,
+                         ObjectMapper objectMapper,
+                         @Value("${export.pageSize:500}") int pageSize,
+                         @Value("${export.contentConcurrency:4}") int contentConcurrency) {
+        this.gameMetadataRepository = gameMetadataRepository;
+        this.transcribeMetadataRepository = transcribeMetadataRepository;
+        this.gameBundleService = gameBundleService;
+        this.contentStore = contentStore;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.contentConcurrency = contentConcurrency;
+    }
+
+    public Flux<DataBuffer> export(String userId, Set<String> types, boolean includeContent) {
+        Flux<ExportRecord> games = types.contains(GAMES) ? exportGames(userId, includeContent) : Flux.empty();
+        Flux<ExportRecord> transcripts = types.contains(TRANSCRIPTS)
+                ? transcribeMetadataRepository.streamByUserId(userId, pageSize)
+                        .map(transcript -> new ExportRecord(ExportRecord.TRANSCRIPT, transcript, null))
+                : Flux.empty();
+
+        return Flux.concat(games, transcripts)
+                .map(this::toLine);
+    }
+
+    private Flux<ExportRecord> exportGames(String userId, boolean includeContent) {
+        Flux<GameGenerationMetadata> games = gameMetadataRepository.streamByUserId(userId, pageSize);
+        if (!includeContent) {
+            return games.map(game -> new ExportRecord(ExportRecord.GAME, game, null));
+        }
+        return games.flatMapSequential(game -> readContent(game)
+                        .map(content -> new ExportRecord(ExportRecord.GAME, game, content)),
+                contentConcurrency, 1);
+    }
+
+    /**
+     * The files of the game's current revision as text, by name relative to the project root.
+     */
+    private Mono<Map<String, String>> readContent(GameGenerationMetadata game) {
+        String root = GameBundleService.currentRoot(game);
+        return gameBundleService.currentFiles(game)
+                .concatMap(key -> contentStore.get(key)
+                        .map(content -> Map.entry(key.substring(root.length()), StandardCharsets.UTF_8.decode(content).toString()))
+                        // Deleted between listing and reading
+                        .onErrorResume(ContentNotFoundException.class, e -> Mono.empty()))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new);
+    }
+
+    @SneakyThrows
+    private DataBuffer toLine(ExportRecord record) {
+        byte[] json = objectMapper.writeValueAsBytes(record);
+        return DefaultDataBufferFactory.sharedInstance.allocateBuffer(json.length + 1)
+                .write(json)
+                .write(NEWLINE);
+    }
+}
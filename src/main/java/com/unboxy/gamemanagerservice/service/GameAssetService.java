@@ -0,0 +1,168 @@
+package com.unboxy.gamemanagerservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import com.unboxy.gamemanagerservice.model.GameAsset;
+import com.unboxy.gamemanagerservice.model.GameAssetManifest;
+import com.unboxy.gamemanagerservice.store.ContentAttributes;
+import com.unboxy.gamemanagerservice.store.ContentNotFoundException;
+import com.unboxy.gamemanagerservice.store.ContentStore;
+import com.unboxy.gamemanagerservice.store.ContentVersionConflictException;
+import com.unboxy.gamemanagerservice.store.GameContentKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary assets (sprites, audio, atlases) of a game. Uploads are spooled to disk so memory use does not depend on asset size,
+ * stored once per content hash, and listed in a per-game manifest next to index.html.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GameAssetService {
+    private static final String MANIFEST_CACHE_CONTROL = "no-cache";
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final Duration MANIFEST_CONFLICT_BACKOFF = Duration.ofMillis(20);
+
+    private final ContentStore contentStore;
+    private final ObjectMapper objectMapper;
+
+    @Value("${games.assets.uploadConcurrency:4}")
+    private int uploadConcurrency;
+
+    @Value("${games.assets.manifestConflictRetries:5}")
+    private int manifestConflictRetries;
+
+    public Mono<GameAssetManifest> uploadAssets(String gameId, Flux<FilePart> files) {
+        return files
+                .flatMap(file -> uploadAsset(file.filename(), contentTypeOf(file), file.content()), uploadConcurrency)
+                .collectList()
+                .flatMap(assets -> addToManifest(gameId, assets));
+    }
+
+    public Mono<GameAssetManifest> uploadAsset(String gameId, String name, String contentType, Flux<DataBuffer> content) {
+        return uploadAsset(name, contentType, content)
+                .flatMap(asset -> addToManifest(gameId, List.of(asset)));
+    }
+
+    public Mono<GameAssetManifest> getManifest(String gameId) {
+        return contentStore.get(GameContentKeys.assetManifest(gameId))
+                .map(buffer -> readManifest(gameId, buffer))
+                .onErrorResume(ContentNotFoundException.class, e -> Mono.just(new GameAssetManifest(gameId, List.of())));
+    }
+
+    private Mono<GameAsset> uploadAsset(String name, String contentType, Flux<DataBuffer> content) {
+        String assetName;
+        try {
+            assetName = sanitizeName(name);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+
+        return Mono.usingWhen(
+                Mono.fromCallable(() -> Files.createTempFile("game-asset-", ".upload")).subscribeOn(Schedulers.boundedElastic()),
+                tempFile -> DataBufferUtils.write(content, tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+                        .then(Mono.fromCallable(() -> new SpooledAsset(hash(tempFile), Files.size(tempFile))).subscribeOn(Schedulers.boundedElastic()))
+                        .flatMap(spooled -> {
+                            String key = GameContentKeys.asset(spooled.contentHash(), StringUtils.substringAfterLast(assetName, ".").toLowerCase());
+                            GameAsset asset = new GameAsset(assetName, contentStore.publicUrl(key), spooled.contentHash(), spooled.size(), contentType);
+                            return contentStore.exists(key)
+                                    .flatMap(exists -> {
+                                        if (exists) {
+                                            log.info("Asset {} already stored as {}, skipping upload", assetName, key);
+                                            return Mono.<Void>empty();
+                                        }
+                                        return contentStore.put(key,
+                                                DataBufferUtils.read(tempFile, DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE),
+                                                spooled.size(),
+                                                ContentAttributes.immutable(contentType));
+                                    })
+                                    .thenReturn(asset);
+                        }),
+                tempFile -> Mono.fromCallable(() -> Files.deleteIfExists(tempFile)).subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Read-modify-write of the manifest with a conditional put against the version that was read. When another upload
+     * changed the manifest in between, the manifest is read again and the assets merged into the fresh copy.
+     */
+    private Mono<GameAssetManifest> addToManifest(String gameId, List<GameAsset> uploaded) {
+        String key = GameContentKeys.assetManifest(gameId);
+        return Mono.defer(() -> contentStore.getVersioned(key)
+                        .map(current -> new VersionedManifest(readManifest(gameId, current.content()), current.version()))
+                        .onErrorResume(ContentNotFoundException.class, e -> Mono.just(new VersionedManifest(new GameAssetManifest(gameId, List.of()), null)))
+                        .flatMap(existing -> {
+                            Map<String, GameAsset> assetsByName = new LinkedHashMap<>();
+                            existing.manifest().assets().forEach(asset -> assetsByName.put(asset.name(), asset));
+                            uploaded.forEach(asset -> assetsByName.put(asset.name(), asset));
+                            GameAssetManifest manifest = new GameAssetManifest(gameId, new ArrayList<>(assetsByName.values()));
+
+                            return contentStore.putIfVersion(key, writeManifest(manifest),
+                                            new ContentAttributes(MediaType.APPLICATION_JSON_VALUE, MANIFEST_CACHE_CONTROL), existing.version())
+                                    .thenReturn(manifest);
+                        }))
+                .retryWhen(Retry.backoff(manifestConflictRetries, MANIFEST_CONFLICT_BACKOFF)
+                        .filter(ContentVersionConflictException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    @SneakyThrows
+    private String hash(Path file) {
+        return com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.sha256()).toString();
+    }
+
+    @SneakyThrows
+    private GameAssetManifest readManifest(String gameId, ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        GameAssetManifest manifest = objectMapper.readValue(bytes, GameAssetManifest.class);
+        return manifest.assets() == null ? new GameAssetManifest(gameId, List.of()) : manifest;
+    }
+
+    @SneakyThrows
+    private byte[] writeManifest(GameAssetManifest manifest) {
+        return objectMapper.writeValueAsBytes(manifest);
+    }
+
+    private String contentTypeOf(FilePart file) {
+        MediaType contentType = file.headers().getContentType();
+        return contentType != null ? contentType.toString() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private String sanitizeName(String name) {
+        String baseName = StringUtils.substringAfterLast("/" + StringUtils.defaultString(name).replace('\\', '/'), "/");
+        if (StringUtils.isBlank(baseName) || baseName.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid asset name: " + name);
+        }
+        return baseName;
+    }
+
+    private record SpooledAsset(String contentHash, long size) {
+    }
+
+    private record VersionedManifest(GameAssetManifest manifest, String version) {
+    }
+}
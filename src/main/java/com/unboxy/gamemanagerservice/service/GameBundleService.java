@@ -0,0 +1,92 @@
+package com.unboxy.gamemanagerservice.service;
+
+import com.unboxy.gamemanagerservice.model.GameGenerationMetadata;
+import com.unboxy.gamemanagerservice.store.ContentStore;
+import com.unboxy.gamemanagerservice.store.GameContentKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams a game project as a ZIP archive. Objects are read one at a time and copied into the archive as their bytes arrive;
+ * the writer runs on a bounded elastic thread and blocks whenever the client has not requested more data,
+ * so neither memory nor queued work grows with project size or client speed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GameBundleService {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int OBJECT_PREFETCH = 4;
+
+    private static final Executor WRITER_EXECUTOR = task -> Schedulers.boundedElastic().schedule(task);
+
+    private final ContentStore contentStore;
+
+    public Flux<DataBuffer> streamBundle(GameGenerationMetadata metadata) {
+        String root = currentRoot(metadata);
+        return Flux.from(DataBufferUtils.outputStreamPublisher(outputStream -> writeBundle(root, currentFiles(metadata), outputStream),
+                DefaultDataBufferFactory.sharedInstance, WRITER_EXECUTOR, CHUNK_SIZE));
+    }
+
+    /**
+     * Prefix of the files of the game's current revision; names inside the project are relative to it.
+     */
+    public static String currentRoot(GameGenerationMetadata metadata) {
+        return metadata.getCurrentRevision() == null
+                ? GameContentKeys.gamePrefix(metadata.getId())
+                : GameContentKeys.revisionPrefix(metadata.getId(), metadata.getCurrentRevision());
+    }
+
+    /**
+     * Keys of the files that make up the game's current revision.
+     */
+    public Flux<String> currentFiles(GameGenerationMetadata metadata) {
+        String root = currentRoot(metadata);
+        // Legacy games keep their files at the top level; older revisions are not part of the project
+        String excludedPrefix = GameContentKeys.revisionPrefix(metadata.getId(), "");
+        return contentStore.list(root)
+                .filter(key -> root.startsWith(excludedPrefix) || !key.startsWith(excludedPrefix));
+    }
+
+    private void writeBundle(String root, Flux<String> keys, OutputStream outputStream) {
+        try (ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+            WritableByteChannel channel = Channels.newChannel(zip);
+            int entries = 0;
+            for (String key : keys.toIterable(OBJECT_PREFETCH)) {
+                zip.putNextEntry(new ZipEntry(key.substring(root.length())));
+                for (DataBuffer dataBuffer : contentStore.stream(key).toIterable(OBJECT_PREFETCH)) {
+                    try (DataBuffer.ByteBufferIterator buffers = dataBuffer.readableByteBuffers()) {
+                        while (buffers.hasNext()) {
+                            var byteBuffer = buffers.next();
+                            while (byteBuffer.hasRemaining()) {
+                                channel.write(byteBuffer);
+                            }
+                        }
+                    } finally {
+                        DataBufferUtils.release(dataBuffer);
+                    }
+                }
+                zip.closeEntry();
+                entries++;
+            }
+            log.info("Streamed bundle of {} with {} entries", root, entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.unboxy.gamemanagerservice.service;
 
+import com.unboxy.gamemanagerservice.model.GameForkRequest;
 import com.unboxy.gamemanagerservice.model.GameGenerationMetadata;
 import com.unboxy.gamemanagerservice.model.GameGenerationRequest;
 import com.unboxy.gamemanagerservice.model.GameUpdateRequest;
 import com.unboxy.gamemanagerservice.model.GameStatus;
+import com.unboxy.gamemanagerservice.store.ContentNotFoundException;
 import com.unboxy.gamemanagerservice.utils.UserUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +13,8 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -30,7 +34,7 @@ public class GameGenerationService {
         return UserUtils.getCurrentUserId()
                 .flatMap(userId -> {
                     // Get existing game content from S3
-                    return s3Service.getGameContent(gameId)
+                    return s3Service.getGameContent(existingMetadata)
                             .flatMap(existingContent -> {
                                 // Update metadata status
                                 existingMetadata.setGameStatus(GameStatus.GENERATING.toString());
@@ -42,7 +46,8 @@ public class GameGenerationService {
                             })
                             .onErrorResume(error -> {
                                 // Check if it's an S3 retrieval error (file not found)
-                                if (error.getMessage() != null && error.getMessage().contains("NoSuchKey")) {
+                                if (error instanceof ContentNotFoundException
+                                        || (error.getMessage() != null && error.getMessage().contains("NoSuchKey"))) {
                                     log.warn("Game file not found in S3 for {}, regenerating from scratch: {}", 
                                         gameId, error.getMessage());
                                     
@@ -61,6 +66,38 @@ public class GameGenerationService {
                 });
     }
 
+    /**
+     * Creates the metadata of a fork and duplicates the source game's objects with server-side copies.
+     */
+    public Mono<GameGenerationMetadata> forkGame(GameGenerationMetadata source, GameForkRequest forkRequest) {
+        return UserUtils.getCurrentUserId()
+                .flatMap(userId -> {
+                    String forkId = UUID.randomUUID().toString();
+                    GameGenerationMetadata fork = new GameGenerationMetadata();
+                    fork.setId(forkId);
+                    fork.setTitle(forkRequest.getTitle() != null ? forkRequest.getTitle() : source.getTitle());
+                    fork.setDescription(forkRequest.getDescription() != null ? forkRequest.getDescription() : source.getDescription());
+                    fork.setTags(forkRequest.getTags() != null ? forkRequest.getTags() : source.getTags());
+                    fork.setGameType(source.getGameType());
+                    fork.setGeneratedPrompt(source.getGeneratedPrompt());
+                    fork.setPosterUrl(source.getPosterUrl());
+                    fork.setForkedFrom(source.getId());
+                    fork.setUserId(userId);
+                    fork.setCurrentRevision(source.getCurrentRevision());
+                    fork.setRevisions(source.getRevisions() == null ? null : new ArrayList<>(source.getRevisions()));
+                    fork.setPublicGameUrl(source.getCurrentRevision() != null
+                            ? s3Service.getRevisionUrl(forkId, source.getCurrentRevision())
+                            : s3Service.getPublicUrl(forkId + "/index.html"));
+                    fork.setGameStatus(GameStatus.DEPLOYED.toString());
+                    fork.setCreatedAt(LocalDateTime.now());
+                    fork.setUpdatedAt(LocalDateTime.now());
+
+                    return s3Service.copyGameFiles(source.getId(), forkId)
+                            .doOnNext(count -> log.info("Forked game {} into {} ({} objects copied)", source.getId(), forkId, count))
+                            .thenReturn(fork);
+                });
+    }
+
     public Mono<GameGenerationMetadata> generateGameProject(GameGenerationRequest request) {
         return UserUtils.getCurrentUserId()
                 .flatMap(userId -> {
@@ -120,9 +157,15 @@ public class GameGenerationService {
         log.info("Deploying project to S3 for game: {}", metadata.getId());
         
         return phaserGameGenerationService.deployPhaserProjectToS3(projectFiles, metadata.getId())
-                .map(publicUrl -> {
-                    log.info("S3 deployment completed for game: {}, URL: {}", metadata.getId(), publicUrl);
-                    metadata.setPublicGameUrl(publicUrl);
+                .map(gameRevision -> {
+                    log.info("S3 deployment completed for game: {}, revision: {}, URL: {}", metadata.getId(), gameRevision.revision(), gameRevision.publicUrl());
+                    List<String> revisions = metadata.getRevisions() == null ? new ArrayList<>() : new ArrayList<>(metadata.getRevisions());
+                    if (!revisions.contains(gameRevision.revision())) {
+                        revisions.add(gameRevision.revision());
+                    }
+                    metadata.setRevisions(revisions);
+                    metadata.setCurrentRevision(gameRevision.revision());
+                    metadata.setPublicGameUrl(gameRevision.publicUrl());
                     metadata.setGameStatus(GameStatus.DEPLOYED.toString());
                     metadata.setUpdatedAt(LocalDateTime.now());
                     return metadata;
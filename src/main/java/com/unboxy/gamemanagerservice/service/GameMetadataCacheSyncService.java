@@ -0,0 +1,63 @@
+package com.unboxy.gamemanagerservice.service;
+
+import com.unboxy.gamemanagerservice.cache.GameMetadataCache;
+import com.unboxy.gamemanagerservice.repository.GameMetadataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drops cached games written by other nodes. Every run looks up the games created or changed since the previous run
+ * (minus an overlap for clock skew and refresh delay), so a replica serves a stale document for at most about
+ * interval + overlap. When more games changed than one run fetches, the whole cache is cleared instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GameMetadataCacheSyncService {
+
+    private final GameMetadataRepository gameMetadataRepository;
+    private final GameMetadataCache gameMetadataCache;
+
+    @Value("${games.metadataCache.sync.enabled:false}")
+    private boolean enabled;
+
+    @Value("${games.metadataCache.sync.overlapMillis:5000}")
+    private long overlapMillis;
+
+    @Value("${games.metadataCache.sync.batchSize:500}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicReference<LocalDateTime> lastRun = new AtomicReference<>(LocalDateTime.now());
+
+    @Scheduled(fixedDelayString = "${games.metadataCache.sync.intervalMillis:5000}")
+    public void sync() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = lastRun.get().minusNanos(overlapMillis * 1_000_000);
+
+        gameMetadataRepository.findChangedIdsSince(since, batchSize)
+                .collectList()
+                .doFinally(signal -> running.set(false))
+                .subscribe(ids -> {
+                            if (ids.size() >= batchSize) {
+                                log.info("{}+ games changed since {}, clearing the metadata cache", ids.size(), since);
+                                gameMetadataCache.invalidateAll();
+                            } else if (!ids.isEmpty()) {
+                                gameMetadataCache.invalidateAll(ids);
+                            }
+                            lastRun.set(startedAt);
+                        },
+                        error -> log.error("Game metadata cache sync failed: {}", error.getMessage()));
+    }
+}
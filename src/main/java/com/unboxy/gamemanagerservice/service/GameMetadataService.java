@@ -1,17 +1,33 @@
 package com.unboxy.gamemanagerservice.service;
 
+import com.unboxy.gamemanagerservice.cache.GameCountCache;
+import com.unboxy.gamemanagerservice.cache.GameMetadataCache;
 import com.unboxy.gamemanagerservice.model.GameGenerationMetadata;
 import com.unboxy.gamemanagerservice.model.GameGenerationRequest;
+import com.unboxy.gamemanagerservice.model.GameSearchResult;
+import com.unboxy.gamemanagerservice.model.GameStatus;
+import com.unboxy.gamemanagerservice.model.Pagination;
+import com.unboxy.gamemanagerservice.model.SearchCriteria;
 import com.unboxy.gamemanagerservice.model.SearchResult;
+import com.unboxy.gamemanagerservice.model.SourceProjection;
+import com.unboxy.gamemanagerservice.model.SourceView;
 import com.unboxy.gamemanagerservice.repository.GameMetadataRepository;
+import com.unboxy.gamemanagerservice.utils.RequestMemo;
 import com.unboxy.gamemanagerservice.utils.UserUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.opensearch.client.opensearch._types.SortOrder;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -20,29 +36,96 @@ public class GameMetadataService {
 
     private final GameMetadataRepository gameMetadataRepository;
 
+    private final S3Service s3Service;
+
+    private final GameCountCache gameCountCache;
+
+    private final GameMetadataCache gameMetadataCache;
+
     public Mono<GameGenerationMetadata> createMetadata(GameGenerationMetadata metadata) {
-        return gameMetadataRepository.save(metadata.getId(), metadata);
+        return gameMetadataRepository.save(metadata.getId(), metadata)
+                .doOnNext(created -> {
+                    gameMetadataCache.invalidate(created.getId());
+                    gameCountCache.onCreated(created.getUserId());
+                });
     }
 
     public Mono<GameGenerationMetadata> updateMetadata(String id, GameGenerationRequest request) {
-        return UserUtils.getCurrentUserId()
-                .flatMap(userId -> gameMetadataRepository.findByIdAndUserId(id, userId))
+        return getGameMetadata(id)
                 .flatMap(existingMetadata -> {
                     existingMetadata.setTitle(request.getTitle());
                     existingMetadata.setDescription(request.getDescription());
                     existingMetadata.setGameType(request.getGameType());
                     existingMetadata.setTags(request.getTags());
-                    return gameMetadataRepository.update(existingMetadata.getId(), existingMetadata);
-                });
+                    existingMetadata.setUpdatedAt(LocalDateTime.now());
+                    return gameMetadataRepository.partialUpdate(existingMetadata.getId(), existingMetadata,
+                            List.of("title", "description", "gameType", "tags", "updatedAt"));
+                })
+                .flatMap(this::afterWrite);
     }
 
+    /**
+     * Stores the outcome of a generation run. The write is conditioned on the version the run started from; if the game was
+     * edited meanwhile, the generation-owned fields are re-applied to the latest document instead of overwriting the edit.
+     */
     public Mono<GameGenerationMetadata> updateMetadata(GameGenerationMetadata metadata) {
-        return gameMetadataRepository.update(metadata.getId(), metadata);
+        return gameMetadataRepository.update(metadata.getId(), metadata)
+                .onErrorResume(ConcurrencyFailureException.class, conflict -> {
+                    log.info("Game {} changed during generation, merging the generation result into the latest version", metadata.getId());
+                    return gameMetadataRepository.updateWithRetry(metadata.getId(), latest -> applyGenerationResult(metadata, latest));
+                })
+                .flatMap(this::afterWrite);
+    }
+
+    private GameGenerationMetadata applyGenerationResult(GameGenerationMetadata generated, GameGenerationMetadata latest) {
+        // A game deleted while it was generating stays deleted
+        if (!GameStatus.DELETED.toString().equals(latest.getGameStatus())) {
+            latest.setGameStatus(generated.getGameStatus());
+        }
+        latest.setGeneratedPrompt(generated.getGeneratedPrompt());
+        latest.setAiResponse(generated.getAiResponse());
+        latest.setS3GameUrl(generated.getS3GameUrl());
+        latest.setPublicGameUrl(generated.getPublicGameUrl());
+        latest.setCurrentRevision(generated.getCurrentRevision());
+
+        Set<String> revisions = new LinkedHashSet<>();
+        if (latest.getRevisions() != null) {
+            revisions.addAll(latest.getRevisions());
+        }
+        if (generated.getRevisions() != null) {
+            revisions.addAll(generated.getRevisions());
+        }
+        latest.setRevisions(new ArrayList<>(revisions));
+        latest.setUpdatedAt(LocalDateTime.now());
+        return latest;
     }
 
+    /**
+     * Points the game at an earlier deployed revision. Revision objects are immutable, so this only touches metadata.
+     */
+    public Mono<GameGenerationMetadata> rollbackToRevision(String id, String revision) {
+        return getGameMetadata(id)
+                .flatMap(existingMetadata -> {
+                    if (existingMetadata.getRevisions() == null || !existingMetadata.getRevisions().contains(revision)) {
+                        return Mono.error(new RuntimeException("The requested revision does not exist: " + id + " : " + revision));
+                    }
+                    existingMetadata.setCurrentRevision(revision);
+                    existingMetadata.setPublicGameUrl(s3Service.getRevisionUrl(id, revision));
+                    existingMetadata.setUpdatedAt(LocalDateTime.now());
+                    return gameMetadataRepository.partialUpdate(existingMetadata.getId(), existingMetadata,
+                            List.of("currentRevision", "publicGameUrl", "updatedAt"));
+                })
+                .flatMap(this::afterWrite);
+    }
+
+    /**
+     * The current user's game, read with a realtime GET and checked for ownership in memory. The document is memoized for
+     * the rest of the request, so an endpoint that checks ownership and then mutates reads it only once.
+     */
     public Mono<GameGenerationMetadata> getGameMetadata(String id) {
         return UserUtils.getCurrentUserId()
-                .flatMap(userId -> gameMetadataRepository.findByIdAndUserId(id, userId));
+                .flatMap(userId -> loadMetadata(id)
+                        .filter(metadata -> GameMetadataRepository.isOwnedBy(metadata, userId)));
     }
 
     public Mono<SearchResult<GameGenerationMetadata>> getAllUserGames(int page, int size) {
@@ -50,24 +133,125 @@ public class GameMetadataService {
                 .flatMap(userId -> gameMetadataRepository.findAllByUserId(userId, page, size));
     }
 
+    /**
+     * Marks the game as deleted; its objects and the document itself are removed later by the reclaimer.
+     */
     public Mono<Boolean> deleteGameMetadata(String id) {
-        return UserUtils.getCurrentUserId()
-                .flatMap(userId -> gameMetadataRepository.findByIdAndUserId(id, userId))
-                .flatMap(metadata -> gameMetadataRepository.deleteById(id))
+        return getGameMetadata(id)
+                .flatMap(metadata -> {
+                    metadata.setGameStatus(GameStatus.DELETED.toString());
+                    metadata.setDeletedAt(LocalDateTime.now());
+                    metadata.setUpdatedAt(LocalDateTime.now());
+                    return gameMetadataRepository.partialUpdate(metadata.getId(), metadata,
+                            List.of("gameStatus", "deletedAt", "updatedAt"));
+                })
+                .flatMap(this::afterWrite)
+                .doOnNext(deleted -> gameCountCache.onDeleted(deleted.getUserId()))
                 .map(result -> true);
     }
 
-    public Mono<SearchResult<GameGenerationMetadata>> getAllGamesPublic(int page, int size) {
-        return gameMetadataRepository.findByFields(Map.of(), page, size, Map.of("createdAt", SortOrder.Desc))
-                .collectList()
-                .map(games -> new SearchResult<>("", games, null));
+    public Flux<GameGenerationMetadata> getTombstonedGames(int size) {
+        return gameMetadataRepository.findTombstoned(size);
+    }
+
+    /**
+     * Takes a lease on a tombstoned game with a write guarded by the version it was read at. Completes empty when another
+     * node changed the game first, which means it claimed it.
+     */
+    public Mono<GameGenerationMetadata> claimForReclaim(GameGenerationMetadata metadata, Duration lease) {
+        metadata.setReclaimLeaseUntil(LocalDateTime.now().plus(lease));
+        return gameMetadataRepository.update(metadata.getId(), metadata)
+                .onErrorResume(ConcurrencyFailureException.class, e -> Mono.empty());
+    }
+
+    public Mono<String> purgeGameMetadata(String id) {
+        return gameMetadataRepository.deleteById(id)
+                .doOnNext(gameMetadataCache::invalidate);
     }
 
+    /**
+     * Keyset pagination with a nextCursor is used when a cursor is supplied, or for the first page when the client asks
+     * for it with keyset; everything else is an offset page.
+     */
+    public Mono<SearchResult<GameGenerationMetadata>> getAllGamesPublic(int page, int size, SourceView view, List<String> fields,
+                                                                        String cursor, boolean keyset) {
+        SourceProjection projection = gameMetadataRepository.toSourceProjection(view, fields);
+        if (useCursor(page, cursor, keyset)) {
+            return withTotal(gameMetadataRepository.findByFieldsAfter(Map.of(), size, cursor, projection), cursorPage(page, cursor), size, null);
+        }
+        return withTotal(gameMetadataRepository.findPageByFields(Map.of(), page, size, projection), page, size, null);
+    }
+
+    /**
+     * Served from the metadata cache; owners reading their own game go through {@link #getGameMetadata(String)} instead.
+     */
     public Mono<GameGenerationMetadata> getGameMetadataPublic(String id) {
-        return gameMetadataRepository.findById(id);
+        return gameMetadataCache.get(id, () -> gameMetadataRepository.findByIdIfPresent(id))
+                .filter(metadata -> !GameStatus.DELETED.toString().equals(metadata.getGameStatus()))
+                .switchIfEmpty(Mono.error(new RuntimeException("The requested resource does not exist: " + GameGenerationMetadata.class.getName() + " : " + id)));
+    }
+
+    public Mono<GameSearchResult> searchGames(SearchCriteria criteria, SourceView view, List<String> fields) {
+        return gameMetadataRepository.search(criteria, gameMetadataRepository.toSourceProjection(view, fields));
+    }
+
+    public Mono<SearchResult<GameGenerationMetadata>> getGamesByUserId(String userId, int page, int size, SourceView view, List<String> fields,
+                                                                       String cursor, boolean keyset) {
+        SourceProjection projection = gameMetadataRepository.toSourceProjection(view, fields);
+        if (useCursor(page, cursor, keyset)) {
+            return withTotal(gameMetadataRepository.findAllByUserIdAfter(userId, size, cursor, projection), cursorPage(page, cursor), size, userId);
+        }
+        return withTotal(gameMetadataRepository.findAllByUserId(userId, page, size, projection), page, size, userId);
+    }
+
+    private static boolean useCursor(int page, String cursor, boolean keyset) {
+        return cursor != null || (keyset && page == 0);
+    }
+
+    /**
+     * A keyset search started without a cursor is the requested first page; pages reached through a cursor have no number.
+     */
+    private static Integer cursorPage(int page, String cursor) {
+        return cursor == null ? page : null;
+    }
+
+    /**
+     * Fills in pagination when the search stopped counting at its track_total_hits threshold, using the cached total of
+     * all games (userId null) or of the user's games. Exact totals reported by the search refresh the cache.
+     */
+    private Mono<SearchResult<GameGenerationMetadata>> withTotal(Mono<SearchResult<GameGenerationMetadata>> searchResult,
+                                                                 Integer page, int size, String userId) {
+        return searchResult.flatMap(result -> {
+            if (result.pagination() != null) {
+                long totalSize = result.pagination().totalSize();
+                if (userId == null) {
+                    gameCountCache.putTotal(totalSize);
+                } else {
+                    gameCountCache.putUserTotal(userId, totalSize);
+                }
+                return Mono.just(new SearchResult<>(result.searchText(), result.items(), Pagination.of(page, size, totalSize), result.nextCursor()));
+            }
+
+            Mono<Long> total = userId == null
+                    ? gameCountCache.getTotal(() -> gameMetadataRepository.countByFields(Map.of()))
+                    : gameCountCache.getUserTotal(userId, () -> gameMetadataRepository.countByUserId(userId));
+            return total.map(count -> new SearchResult<>(result.searchText(), result.items(), Pagination.of(page, size, count), result.nextCursor()));
+        });
+    }
+
+    private Mono<GameGenerationMetadata> loadMetadata(String id) {
+        return RequestMemo.getOrLoad(memoKey(id), () -> gameMetadataRepository.findByIdIfPresent(id));
+    }
+
+    /**
+     * Every write drops the cached public copy and replaces the request-scoped one.
+     */
+    private Mono<GameGenerationMetadata> afterWrite(GameGenerationMetadata metadata) {
+        gameMetadataCache.invalidate(metadata.getId());
+        return RequestMemo.update(memoKey(metadata.getId()), metadata);
     }
 
-    public Mono<SearchResult<GameGenerationMetadata>> getGamesByUserId(String userId, int page, int size) {
-        return gameMetadataRepository.findAllByUserId(userId, page, size);
+    private static String memoKey(String id) {
+        return "game:" + id;
     }
-}
\ No newline at end of file
+}
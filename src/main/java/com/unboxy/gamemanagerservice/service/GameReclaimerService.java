@@ -0,0 +1,58 @@
+package com.unboxy.gamemanagerservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background removal of soft-deleted games: every object under the game's prefix is deleted in batches,
+ * then the tombstoned document is dropped from the index. Every node may run it; a game is only reclaimed by the node
+ * whose version-guarded lease on it succeeded, and another node picks it up once the lease runs out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GameReclaimerService {
+
+    private final GameMetadataService gameMetadataService;
+    private final S3Service s3Service;
+
+    @Value("${games.reclaimer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${games.reclaimer.batchSize:50}")
+    private int batchSize;
+
+    @Value("${games.reclaimer.leaseMillis:600000}")
+    private long leaseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Scheduled(fixedDelayString = "${games.reclaimer.intervalMillis:60000}", initialDelayString = "${games.reclaimer.initialDelayMillis:30000}")
+    public void reclaim() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        gameMetadataService.getTombstonedGames(batchSize)
+                .concatMap(metadata -> gameMetadataService.claimForReclaim(metadata, Duration.ofMillis(leaseMillis))
+                        .flatMap(claimed -> s3Service.deleteGameFiles(claimed.getId()))
+                        .flatMap(deleted -> gameMetadataService.purgeGameMetadata(metadata.getId())
+                                .doOnNext(id -> log.info("Reclaimed game {} ({} objects deleted)", id, deleted)))
+                        .onErrorResume(error -> {
+                            log.error("Failed to reclaim game {}: {}", metadata.getId(), error.getMessage());
+                            return Mono.empty();
+                        }))
+                .doFinally(signal -> running.set(false))
+                .subscribe(
+                        id -> {},
+                        error -> log.error("Game reclaimer run failed: {}", error.getMessage())
+                );
+    }
+}
@@ -0,0 +1,59 @@
+package com.unboxy.gamemanagerservice.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.unboxy.gamemanagerservice.model.GameStats;
+import com.unboxy.gamemanagerservice.model.StatsInterval;
+import com.unboxy.gamemanagerservice.repository.GameMetadataRepository;
+import com.unboxy.gamemanagerservice.utils.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Catalog statistics for dashboards. Results are cached per user, interval and current time bucket: the histogram window
+ * only moves when a new bucket starts, and counts within the TTL are allowed to lag behind writes.
+ */
+@Service
+public class GameStatsService {
+    private static final int MAX_BUCKETS = 366;
+
+    private final GameMetadataRepository gameMetadataRepository;
+    private final Cache<StatsKey, GameStats> stats;
+    private final SingleFlight<StatsKey, GameStats> loads = new SingleFlight<>();
+
+    public GameStatsService(GameMetadataRepository gameMetadataRepository,
+                            @Value("${games.stats.cacheTtlSeconds:60}") long cacheTtlSeconds,
+                            @Value("${games.stats.cacheMaxSize:1000}") long cacheMaxSize) {
+        this.gameMetadataRepository = gameMetadataRepository;
+        this.stats = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    public Mono<GameStats> getStats(String userId, StatsInterval interval, Integer buckets) {
+        int bucketCount = buckets == null ? interval.getDefaultBuckets() : buckets;
+        if (bucketCount < 1 || bucketCount > MAX_BUCKETS) {
+            return Mono.error(new IllegalArgumentException("buckets must be between 1 and " + MAX_BUCKETS));
+        }
+
+        LocalDate currentBucket = interval.bucketStart(LocalDate.now());
+        StatsKey key = new StatsKey(userId, interval, currentBucket, bucketCount);
+        return Mono.defer(() -> {
+            GameStats cached = stats.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            LocalDate from = interval.minus(currentBucket, bucketCount - 1);
+            return loads.execute(key, () -> gameMetadataRepository.stats(userId, interval, from, currentBucket)
+                    .doOnNext(result -> stats.put(key, result)));
+        });
+    }
+
+    private record StatsKey(String userId, StatsInterval interval, LocalDate bucket, int buckets) {
+    }
+}
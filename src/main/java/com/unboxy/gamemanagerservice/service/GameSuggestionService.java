@@ -0,0 +1,93 @@
+package com.unboxy.gamemanagerservice.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.unboxy.gamemanagerservice.model.GameSuggestions;
+import com.unboxy.gamemanagerservice.repository.GameMetadataRepository;
+import com.unboxy.gamemanagerservice.utils.SingleFlight;
+import com.unboxy.gamemanagerservice.utils.UserUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typeahead for the search box. Normalized prefixes are cached for a short time, so the common first letters never reach
+ * OpenSearch, and concurrent lookups of the same prefix share one query. A lookup tagged with a session completes empty
+ * as soon as a newer prefix arrives for that session, so the client is not sent stale suggestions. The shared query itself
+ * is not cancelled: it keeps running for the other lookups of the prefix and still fills the cache.
+ * <p>
+ * Sessions are scoped to the authenticated user, or to the client address for anonymous requests, so a client can only
+ * supersede its own lookups.
+ */
+@Service
+public class GameSuggestionService {
+    private static final int MAX_PREFIX_LENGTH = 50;
+
+    private final GameMetadataRepository gameMetadataRepository;
+    private final Cache<String, GameSuggestions> suggestions;
+    private final SingleFlight<String, GameSuggestions> lookups = new SingleFlight<>();
+    private final Map<String, Sinks.One<Boolean>> latestBySession = new ConcurrentHashMap<>();
+    private final int maxResults;
+
+    public GameSuggestionService(GameMetadataRepository gameMetadataRepository,
+                                 @Value("${games.suggest.maxResults:10}") int maxResults,
+                                 @Value("${games.suggest.cacheTtlSeconds:60}") long cacheTtlSeconds,
+                                 @Value("${games.suggest.cacheMaxSize:1000}") long cacheMaxSize) {
+        this.gameMetadataRepository = gameMetadataRepository;
+        this.maxResults = maxResults;
+        this.suggestions = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    /**
+     * @param session optional client-chosen id of a stream of keystrokes
+     * @param client  address of the connection, used to scope the session when the request is anonymous
+     */
+    public Mono<GameSuggestions> suggest(String query, String session, String client) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return Mono.just(new GameSuggestions(prefix, List.of(), List.of()));
+        }
+
+        Mono<GameSuggestions> lookup = Mono.defer(() -> {
+            GameSuggestions cached = suggestions.getIfPresent(prefix);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return lookups.execute(prefix, () -> gameMetadataRepository.suggest(prefix, maxResults)
+                    .doOnNext(result -> suggestions.put(prefix, result)));
+        });
+
+        if (session == null) {
+            return lookup;
+        }
+
+        return Mono.deferContextual(ctx -> {
+            String owner = ctx.hasKey(UserUtils.USER_ID) ? "user:" + UserUtils.getUserId(ctx) : "client:" + client;
+            String key = owner + "|" + session;
+
+            Sinks.One<Boolean> superseded = Sinks.one();
+            Sinks.One<Boolean> previous = latestBySession.put(key, superseded);
+            if (previous != null) {
+                previous.tryEmitValue(true);
+            }
+            return lookup
+                    .takeUntilOther(superseded.asMono())
+                    .doFinally(signal -> latestBySession.remove(key, superseded));
+        });
+    }
+
+    private String normalize(String query) {
+        String prefix = StringUtils.normalizeSpace(StringUtils.defaultString(query)).toLowerCase();
+        return StringUtils.left(prefix, MAX_PREFIX_LENGTH);
+    }
+}
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.unboxy.gamemanagerservice.config.AnthropicConfig;
 import com.unboxy.gamemanagerservice.model.GameGenerationMetadata;
 import com.unboxy.gamemanagerservice.model.GameGenerationResult;
+import com.unboxy.gamemanagerservice.model.GameRevision;
+import com.unboxy.gamemanagerservice.utils.ContentHashUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,7 @@ public class PhaserGameGenerationService {
     private final WebClient.Builder webClientBuilder;
     private final ObjectMapper objectMapper;
     private final S3Service s3Service;
+    private final RuntimeAssetService runtimeAssetService;
 
     public Mono<Map<String, String>> generatePhaserGameProject(GameGenerationMetadata metadata) {
         return generateMultiplePhaserFiles(metadata)
@@ -72,7 +75,7 @@ public class PhaserGameGenerationService {
     }
 
     private Mono<String> generateSinglePhaserFile(GameGenerationMetadata metadata, String fileType) {
-        String prompt = buildSinglePhaserFilePrompt(metadata, fileType);
+        String prompt = runtimeAssetService.replaceRuntimeUrls(buildSinglePhaserFilePrompt(metadata, fileType));
         String toolName = getToolNameForFileType(fileType);
         
         Map<String, Object> requestBody = Map.of(
@@ -559,9 +562,12 @@ public class PhaserGameGenerationService {
         );
     }
 
-    public Mono<String> deployPhaserProjectToS3(Map<String, String> projectFiles, String gameId) {
-        String projectPath = gameId + "/";
-        
+    public Mono<GameRevision> deployPhaserProjectToS3(Map<String, String> generatedFiles, String gameId) {
+        // Templates and model output may still reference the CDN build; point them at the self-hosted runtime
+        Map<String, String> projectFiles = new HashMap<>();
+        generatedFiles.forEach((fileName, content) -> projectFiles.put(fileName,
+                content != null && fileName.endsWith(".html") ? runtimeAssetService.rewriteGameHtml(content) : content));
+
         log.info("Deploying {} Phaser files to S3 for game: {}", projectFiles.size(), gameId);
         projectFiles.keySet().forEach(fileName -> log.info("Phaser file to upload: {}", fileName));
         
@@ -572,27 +578,29 @@ public class PhaserGameGenerationService {
                 return Mono.error(new RuntimeException("Cannot upload empty file: " + file.getKey()));
             }
         }
+
+        // Each deployment is stored under its content hash, so published objects never change and can be cached forever
+        String revision = ContentHashUtils.revisionHash(projectFiles);
         
         // Upload each file to S3 using reactive operations
         List<Mono<String>> uploadTasks = projectFiles.entrySet().stream()
                 .map(file -> {
                     String fileName = file.getKey();
                     String content = file.getValue();
-                    String s3Key = projectPath + fileName;
                     String contentType = getContentType(fileName);
                     
-                    log.info("Starting Phaser upload: {} (size: {} chars, type: {})", s3Key, content.length(), contentType);
+                    log.info("Starting Phaser upload: {} revision {} (size: {} chars, type: {})", fileName, revision, content.length(), contentType);
                     
-                    return s3Service.uploadContent(s3Key, content, contentType)
-                            .doOnNext(url -> log.info("Successfully uploaded Phaser file to S3: {}", s3Key))
-                            .doOnError(error -> log.error("Failed to upload Phaser file {}: {}", s3Key, error.getMessage()));
+                    return s3Service.deployRevisionFile(gameId, revision, fileName, content, contentType)
+                            .doOnNext(url -> log.info("Phaser file available in S3: {}", url))
+                            .doOnError(error -> log.error("Failed to upload Phaser file {}: {}", fileName, error.getMessage()));
                 })
                 .toList();
         
-        // Wait for all uploads to complete, then return the main game URL
+        // Wait for all uploads to complete, then return the revision and its main game URL
         return Mono.when(uploadTasks)
-                .then(Mono.fromCallable(() -> s3Service.getPublicUrl(projectPath + "index.html")))
-                .doOnNext(url -> log.info("Phaser game deployment complete. Main URL: {}", url));
+                .then(Mono.fromCallable(() -> new GameRevision(revision, s3Service.getRevisionUrl(gameId, revision))))
+                .doOnNext(gameRevision -> log.info("Phaser game deployment complete. Revision: {}, URL: {}", gameRevision.revision(), gameRevision.publicUrl()));
     }
 
     private String getContentType(String fileName) {
@@ -625,7 +633,7 @@ public class PhaserGameGenerationService {
                     Create a COMPLETE, PRODUCTION-READY single HTML file for a Phaser.js 3.80.1 game with the following MANDATORY requirements:
                      ## 1. HTML STRUCTURE REQUIREMENTS:
                      - Complete HTML5 document with proper DOCTYPE declaration
-                     - Include Phaser.js 3.80.1 from CDN: <script src="https://cdn.jsdelivr.net/npm/phaser@3.80.1/dist/phaser.min.js"></script>
+                     - Include Phaser.js 3.80.1 with exactly this script tag: <script src="https://cdn.jsdelivr.net/npm/phaser@3.80.1/dist/phaser.min.js"></script>
                      - Set viewport meta tag: <meta name="viewport" content="width=device-width, initial-scale=1.0, maximum-scale=1.0, user-scalable=0">
                      - Remove all margins and padding from body
                      - Prevent touch scrolling and bouncing on mobile devices
@@ -941,7 +949,7 @@ public class PhaserGameGenerationService {
     }
 
     private Mono<GameGenerationResult> generateSinglePhaserFileWithResponse(GameGenerationMetadata metadata, String fileType) {
-        String prompt = buildSinglePhaserFilePrompt(metadata, fileType);
+        String prompt = runtimeAssetService.replaceRuntimeUrls(buildSinglePhaserFilePrompt(metadata, fileType));
         String toolName = fileType.equals("html") ? "create_html_file" : "create_javascript_file";
         
         Map<String, Object> requestBody = Map.of(
@@ -969,7 +977,7 @@ public class PhaserGameGenerationService {
     }
 
     private Mono<GameGenerationResult> generateUpdatedSinglePhaserFileWithResponse(GameGenerationMetadata metadata, String existingGameContent, String userUpdateRequest) {
-        String prompt = buildUpdatePrompt(metadata, existingGameContent, userUpdateRequest);
+        String prompt = runtimeAssetService.replaceRuntimeUrls(buildUpdatePrompt(metadata, existingGameContent, userUpdateRequest));
         String toolName = "create_html_file";
         
         Map<String, Object> requestBody = Map.of(
@@ -997,7 +1005,7 @@ public class PhaserGameGenerationService {
     }
 
     private Mono<String> generateUpdatedSinglePhaserFile(GameGenerationMetadata metadata, String existingGameContent, String userUpdateRequest) {
-        String prompt = buildUpdatePrompt(metadata, existingGameContent, userUpdateRequest);
+        String prompt = runtimeAssetService.replaceRuntimeUrls(buildUpdatePrompt(metadata, existingGameContent, userUpdateRequest));
         String toolName = "create_html_file";
         
         Map<String, Object> requestBody = Map.of(
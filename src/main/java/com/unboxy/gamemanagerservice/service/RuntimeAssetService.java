@@ -0,0 +1,125 @@
+package com.unboxy.gamemanagerservice.service;
+
+import com.unboxy.gamemanagerservice.store.ContentAttributes;
+import com.unboxy.gamemanagerservice.store.ContentStore;
+import com.unboxy.gamemanagerservice.utils.ContentHashUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves the pinned Phaser runtime from our own content store under a content-hashed key, so games do not depend on a
+ * third-party CDN at start time. The build is fetched from the CDN once and mirrored; until the mirror is available
+ * (or if mirroring fails) the CDN URL is used.
+ */
+@Service
+@Slf4j
+public class RuntimeAssetService {
+    public static final String PHASER_VERSION = "3.80.1";
+    public static final String PHASER_CDN_URL = "https://cdn.jsdelivr.net/npm/phaser@" + PHASER_VERSION + "/dist/phaser.min.js";
+
+    private static final String PHASER_FILE = "phaser.min.js";
+    private static final String RUNTIME_ROOT = "runtime/phaser/" + PHASER_VERSION + "/";
+    private static final int MAX_RUNTIME_BYTES = 16 * 1024 * 1024;
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ContentStore contentStore;
+    private final WebClient.Builder webClientBuilder;
+    private final boolean selfHosted;
+
+    private final AtomicReference<String> phaserUrl = new AtomicReference<>(PHASER_CDN_URL);
+
+    public RuntimeAssetService(ContentStore contentStore,
+                               WebClient.Builder webClientBuilder,
+                               @Value("${runtime.phaser.selfHosted:true}") boolean selfHosted) {
+        this.contentStore = contentStore;
+        this.webClientBuilder = webClientBuilder;
+        this.selfHosted = selfHosted;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void mirrorRuntime() {
+        if (!selfHosted) {
+            return;
+        }
+
+        // Reuse a build mirrored by an earlier start before downloading it again
+        contentStore.list(RUNTIME_ROOT)
+                .filter(key -> key.endsWith("/" + PHASER_FILE))
+                .next()
+                .switchIfEmpty(Mono.defer(this::downloadAndStore))
+                .subscribe(key -> {
+                            phaserUrl.set(contentStore.publicUrl(key));
+                            log.info("Serving Phaser {} from {}", PHASER_VERSION, phaserUrl.get());
+                        },
+                        error -> log.warn("Failed to mirror Phaser {}, falling back to {}: {}", PHASER_VERSION, PHASER_CDN_URL, error.getMessage()));
+    }
+
+    private Mono<String> downloadAndStore() {
+        Mono<DataBuffer> body = DataBufferUtils.join(webClientBuilder.build()
+                .get()
+                .uri(PHASER_CDN_URL)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class), MAX_RUNTIME_BYTES);
+
+        return body
+                .map(dataBuffer -> {
+                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
+                    dataBuffer.read(bytes);
+                    DataBufferUtils.release(dataBuffer);
+                    return bytes;
+                })
+                .timeout(FETCH_TIMEOUT)
+                .flatMap(bytes -> {
+                    String key = RUNTIME_ROOT + ContentHashUtils.sha256Hex(bytes).substring(0, 16) + "/" + PHASER_FILE;
+                    return contentStore.put(key, bytes, ContentAttributes.immutable("application/javascript"))
+                            .thenReturn(key);
+                });
+    }
+
+    public String getPhaserUrl() {
+        return phaserUrl.get();
+    }
+
+    /**
+     * Points any reference to the CDN build at the self-hosted one. Used for prompts and generated files alike.
+     */
+    public String replaceRuntimeUrls(String content) {
+        String url = phaserUrl.get();
+        return url.equals(PHASER_CDN_URL) ? content : content.replace(PHASER_CDN_URL, url);
+    }
+
+    /**
+     * Post-processes generated HTML: rewrites runtime URLs and adds a preload hint to the head so the runtime download
+     * starts before the parser reaches the script tag.
+     */
+    public String rewriteGameHtml(String html) {
+        String rewritten = replaceRuntimeUrls(html);
+        String url = phaserUrl.get();
+        if (!rewritten.contains(url) || rewritten.contains("rel=\"preload\" href=\"" + url + "\"")) {
+            return rewritten;
+        }
+
+        int headIndex = rewritten.indexOf("<head>");
+        if (headIndex < 0) {
+            return rewritten;
+        }
+        int insertAt = headIndex + "<head>".length();
+        return rewritten.substring(0, insertAt)
+                + "\n    <link rel=\"preload\" href=\"" + url + "\" as=\"script\">"
+                + rewritten.substring(insertAt);
+    }
+
+    public String getPreloadLinkHeader() {
+        return "<" + phaserUrl.get() + ">; rel=preload; as=script";
+    }
+}
@@ -1,19 +1,30 @@
 package com.unboxy.gamemanagerservice.service;
 
+import com.unboxy.gamemanagerservice.model.GameGenerationMetadata;
 import com.unboxy.gamemanagerservice.model.TranscribeCommonMetadata;
 import com.unboxy.gamemanagerservice.repository.S3ContentRepository;
+import com.unboxy.gamemanagerservice.store.ContentAttributes;
+import com.unboxy.gamemanagerservice.store.ContentStore;
+import com.unboxy.gamemanagerservice.store.GameContentKeys;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 @Service
 @RequiredArgsConstructor
 public class S3Service {
     private final S3ContentRepository s3ContentRepository;
 
+    private final ContentStore contentStore;
+
+    @Value("${aws.s3.copyConcurrency:16}")
+    private int copyConcurrency;
+
     public Mono<String> uploadFileToS3(FilePart file) {
         return s3ContentRepository.upload(file);
     }
@@ -40,32 +51,92 @@ public class S3Service {
     }
 
     public Mono<String> deployGameToS3(String gameId, String htmlContent) {
-        String fileName = gameId + "/index.html";
-        return s3ContentRepository.uploadGameContent(fileName, htmlContent);
+        String key = GameContentKeys.gameFile(gameId, GameContentKeys.ENTRY_FILE);
+        return contentStore.put(key, htmlContent.getBytes(StandardCharsets.UTF_8), ContentAttributes.of("text/html"))
+                .then(Mono.fromCallable(() -> contentStore.publicUrl(key)));
     }
 
     public Mono<ByteBuffer> getGameFile(String gameId) {
-        return s3ContentRepository.readGameFile(gameId + "/index.html");
+        return contentStore.get(GameContentKeys.gameFile(gameId, GameContentKeys.ENTRY_FILE));
+    }
+
+    /**
+     * Reads the entry file of the revision the metadata points at, falling back to the legacy in-place location
+     * for games deployed before revisions existed.
+     */
+    public Mono<ByteBuffer> getGameFile(GameGenerationMetadata metadata) {
+        return contentStore.get(getGameEntryKey(metadata));
     }
 
     public Mono<String> getGameContent(String gameId) {
-        return s3ContentRepository.readGameFile(gameId + "/index.html")
-                .map(byteBuffer -> {
-                    byte[] bytes = new byte[byteBuffer.remaining()];
-                    byteBuffer.get(bytes);
-                    return new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
-                });
+        return getGameFile(gameId)
+                .map(this::toUtf8String);
+    }
+
+    public Mono<String> getGameContent(GameGenerationMetadata metadata) {
+        return getGameFile(metadata)
+                .map(this::toUtf8String);
+    }
+
+    /**
+     * Uploads a file of an immutable revision, skipping the upload when the content-addressed key already exists.
+     */
+    public Mono<String> deployRevisionFile(String gameId, String revision, String fileName, String content, String contentType) {
+        String key = GameContentKeys.revisionFile(gameId, revision, fileName);
+        return contentStore.exists(key)
+                .flatMap(exists -> exists
+                        ? Mono.empty()
+                        : contentStore.put(key, content.getBytes(StandardCharsets.UTF_8), ContentAttributes.immutable(contentType)))
+                .then(Mono.fromCallable(() -> contentStore.publicUrl(key)));
+    }
+
+    /**
+     * Duplicates every object of a game under another game id using server-side copies.
+     * Revision keys are content hashes, so the copied revisions stay valid for the target game.
+     */
+    public Mono<Long> copyGameFiles(String sourceGameId, String targetGameId) {
+        String sourcePrefix = GameContentKeys.gamePrefix(sourceGameId);
+        String targetPrefix = GameContentKeys.gamePrefix(targetGameId);
+        return contentStore.list(sourcePrefix)
+                .flatMap(key -> contentStore.copy(key, targetPrefix + key.substring(sourcePrefix.length())).thenReturn(key),
+                        copyConcurrency)
+                .count();
+    }
+
+    /**
+     * Removes every object stored under the game's prefix using batched deletes.
+     */
+    public Mono<Integer> deleteGameFiles(String gameId) {
+        return contentStore.list(GameContentKeys.gamePrefix(gameId))
+                .buffer(ContentStore.MAX_DELETE_BATCH)
+                .concatMap(contentStore::delete)
+                .reduce(0, Integer::sum);
+    }
+
+    public String getRevisionUrl(String gameId, String revision) {
+        return contentStore.publicUrl(GameContentKeys.revisionFile(gameId, revision, GameContentKeys.ENTRY_FILE));
+    }
+
+    private String getGameEntryKey(GameGenerationMetadata metadata) {
+        if (metadata.getCurrentRevision() == null) {
+            return GameContentKeys.gameFile(metadata.getId(), GameContentKeys.ENTRY_FILE);
+        }
+        return GameContentKeys.revisionFile(metadata.getId(), metadata.getCurrentRevision(), GameContentKeys.ENTRY_FILE);
     }
 
-    public Mono<Boolean> deleteGameFile(String gameId) {
-        return s3ContentRepository.deleteGameFile(gameId + "/index.html");
+    private String toUtf8String(ByteBuffer byteBuffer) {
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
     public Mono<String> uploadContent(String fileName, String content, String contentType) {
-        return s3ContentRepository.uploadGameFile(fileName, content, contentType);
+        String key = GameContentKeys.gamesPath(fileName);
+        return contentStore.put(key, content.getBytes(StandardCharsets.UTF_8), ContentAttributes.of(contentType))
+                .then(Mono.fromCallable(() -> contentStore.publicUrl(key)));
     }
 
     public String getPublicUrl(String fileName) {
-        return s3ContentRepository.getPublicUrl(fileName);
+        return contentStore.publicUrl(GameContentKeys.gamesPath(fileName));
     }
 }
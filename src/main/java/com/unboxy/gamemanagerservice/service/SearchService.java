@@ -1,18 +1,41 @@
 package com.unboxy.gamemanagerservice.service;
 
+import com.unboxy.gamemanagerservice.cache.SearchResultCache;
 import com.unboxy.gamemanagerservice.model.SearchCriteria;
 import com.unboxy.gamemanagerservice.model.SearchResult;
+import com.unboxy.gamemanagerservice.model.TranscribeCommonMetadata;
 import com.unboxy.gamemanagerservice.repository.TranscribeMetadataRepository;
-import lombok.RequiredArgsConstructor;
+import com.unboxy.gamemanagerservice.utils.UserUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 @Service
-@RequiredArgsConstructor
 public class SearchService {
+    private static final String SEGMENTS_SCOPE = "audioSegments";
+
     private final TranscribeMetadataRepository transcribeMetadataRepository;
+    private final TranscriptSegmentService transcriptSegmentService;
+    private final SearchResultCache searchResultCache;
+
+    // Transcripts written before the segment index existed are found once TranscriptSegmentBackfillService has moved them
+    private final boolean useSegmentIndex;
+
+    public SearchService(TranscribeMetadataRepository transcribeMetadataRepository,
+                         TranscriptSegmentService transcriptSegmentService,
+                         SearchResultCache searchResultCache,
+                         @Value("${transcripts.segments.searchEnabled:true}") boolean useSegmentIndex) {
+        this.transcribeMetadataRepository = transcribeMetadataRepository;
+        this.transcriptSegmentService = transcriptSegmentService;
+        this.searchResultCache = searchResultCache;
+        this.useSegmentIndex = useSegmentIndex;
+    }
 
-    public Mono<SearchResult> search(SearchCriteria criteria) {
-        return transcribeMetadataRepository.searchAudioSegments(criteria);
+    public Mono<SearchResult<TranscribeCommonMetadata>> search(SearchCriteria criteria) {
+        return UserUtils.getCurrentUserId()
+                .flatMap(userId -> searchResultCache.get(SEGMENTS_SCOPE, userId, criteria,
+                        () -> useSegmentIndex
+                                ? transcriptSegmentService.search(criteria, userId)
+                                : transcribeMetadataRepository.searchAudioSegments(criteria)));
     }
 }
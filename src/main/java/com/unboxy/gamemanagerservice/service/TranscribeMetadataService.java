@@ -1,6 +1,7 @@
 package com.unboxy.gamemanagerservice.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unboxy.gamemanagerservice.cache.SearchResultCache;
 import com.unboxy.gamemanagerservice.model.*;
 import com.unboxy.gamemanagerservice.repository.TranscribeMetadataRepository;
 import com.unboxy.gamemanagerservice.utils.MetadataUtils;
@@ -8,6 +9,7 @@ import com.unboxy.gamemanagerservice.utils.UserUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.ByteBuffer;
@@ -17,8 +19,15 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class TranscribeMetadataService {
+    // audioSegments is written empty: segments live in their own index, and segments an older result stored are dropped
+    private static final List<String> TRANSCRIPTION_RESULT_FIELDS = List.of("transcribeStatus", "transcript", "summary", "audioSegments");
+    private static final String TRANSCRIPTS_SCOPE = "transcripts";
+    private static final List<String> EDITABLE_FIELDS = List.of("languageCode", "title", "description", "duration", "note");
+
     private final TranscribeMetadataRepository transcribeMetadataRepository;
     private final MetadataUtils metadataUtils;
+    private final SearchResultCache searchResultCache;
+    private final TranscriptSegmentService transcriptSegmentService;
 
     @SneakyThrows
     public Mono<TranscribeCommonMetadata> updateMetadata(TranscribeCommonMetadata metadata, ByteBuffer byteBuffer) {
@@ -43,9 +52,20 @@ public class TranscribeMetadataService {
             metadata.setSummary(transcribeResult.results().audioSegments().get(0).transcript());
         } else {
             metadata.setTranscribeStatus(TranscribeStatus.FAILED.toString());
+            return transcribeMetadataRepository.partialUpdate(metadata.getId(), metadata, List.of("transcribeStatus"))
+                    .doOnNext(this::invalidateSearchResults);
         }
 
-        return transcribeMetadataRepository.update(metadata.getId(), metadata);
+        // Segments live in their own index; they are written before the transcript is marked completed
+        String userId = metadata.getCreationUserInfo() == null ? null : metadata.getCreationUserInfo().id();
+        List<AudioSegment> segments = metadata.getAudioSegments();
+        return transcriptSegmentService.indexSegments(metadata.getId(), userId, Flux.fromIterable(segments))
+                .then(Mono.defer(() -> {
+                    metadata.setAudioSegments(null);
+                    return transcribeMetadataRepository.partialUpdate(metadata.getId(), metadata, TRANSCRIPTION_RESULT_FIELDS);
+                }))
+                .doOnNext(updated -> updated.setAudioSegments(segments))
+                .doOnNext(this::invalidateSearchResults);
     }
 
     public Mono<TranscribeCommonMetadata> updateMetadata(String id, TranscribeCreateUpdateMetadata updateMetadata) {
@@ -54,7 +74,8 @@ public class TranscribeMetadataService {
                     metadataUtils.copy(updateMetadata, metadata);
                     return metadata;
                 })
-                .flatMap(metadata -> transcribeMetadataRepository.update(metadata.getId(), metadata));
+                .flatMap(metadata -> transcribeMetadataRepository.partialUpdate(metadata.getId(), metadata, EDITABLE_FIELDS))
+                .doOnNext(this::invalidateSearchResults);
     }
 
     public Mono<TranscribeCommonMetadata> createMetadata(TranscribeCommonMetadata metadata) {
@@ -63,7 +84,8 @@ public class TranscribeMetadataService {
             metadata.setId(metadata.getJobName());
             setCreationRelatedFields(metadata, userInfo);
 
-            return transcribeMetadataRepository.save(metadata.getId(), metadata);
+            return transcribeMetadataRepository.save(metadata.getId(), metadata)
+                    .doOnNext(this::invalidateSearchResults);
         });
     }
 
@@ -73,7 +95,7 @@ public class TranscribeMetadataService {
         return metadata;
     }
 
-    public Mono<SearchResult> getAllUserTranscripts(int pageNumber, int pageSize) {
+    public Mono<SearchResult<TranscribeCommonMetadata>> getAllUserTranscripts(int pageNumber, int pageSize) {
         return Mono.deferContextual(ctx -> {
             String userId = ctx.get("userId");
 
@@ -86,15 +108,42 @@ public class TranscribeMetadataService {
             searchCriteria.setPageNumber(pageNumber);
             searchCriteria.setPageSize(pageSize);
 
-            return transcribeMetadataRepository.findByCriteria(searchCriteria);
+            return searchResultCache.get(TRANSCRIPTS_SCOPE, userId, searchCriteria,
+                    () -> transcribeMetadataRepository.findByCriteria(searchCriteria));
         });
     }
 
+    /**
+     * Transcripts written before the segment index keep their segments in the document itself.
+     */
     public Mono<TranscribeCommonMetadata> getTranscriptMetadata(String id) {
-        return transcribeMetadataRepository.findById(id);
+        return transcribeMetadataRepository.findById(id)
+                .flatMap(metadata -> {
+                    if (metadata.getAudioSegments() != null && !metadata.getAudioSegments().isEmpty()) {
+                        return Mono.just(metadata);
+                    }
+                    return transcriptSegmentService.findSegments(id)
+                            .map(segments -> {
+                                metadata.setAudioSegments(segments);
+                                return metadata;
+                            });
+                });
     }
 
+    /**
+     * The owner is not known without reading the document first, so a delete drops all cached results.
+     */
     public Mono<String> deleteTranscriptMetadata(String id) {
-        return transcribeMetadataRepository.deleteById(id);
+        return transcribeMetadataRepository.deleteById(id)
+                .flatMap(deleted -> transcriptSegmentService.deleteSegments(id).thenReturn(deleted))
+                .doOnNext(deleted -> searchResultCache.invalidateAll());
+    }
+
+    private void invalidateSearchResults(TranscribeCommonMetadata metadata) {
+        if (metadata.getCreationUserInfo() != null && metadata.getCreationUserInfo().id() != null) {
+            searchResultCache.invalidateUser(metadata.getCreationUserInfo().id());
+        } else {
+            searchResultCache.invalidateAll();
+        }
     }
 }
@@ -0,0 +1,82 @@
+package com.unboxy.gamemanagerservice.service;
+
+import com.unboxy.gamemanagerservice.model.TranscribeCommonMetadata;
+import com.unboxy.gamemanagerservice.repository.TranscribeMetadataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves segments that transcripts written before the segment index still keep in the document into the segment index,
+ * then drops them from the document. A transcript is only cleaned up after its segments were written, so it is always
+ * readable; until it has been moved it is not found by segment search. The transcripts left to move are found by
+ * their stored segments, so a run that stops half way is simply continued by the next one, on any node.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TranscriptSegmentBackfillService {
+
+    private final TranscribeMetadataRepository transcribeMetadataRepository;
+    private final TranscriptSegmentService transcriptSegmentService;
+
+    @Value("${transcripts.segments.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transcripts.segments.backfill.batchSize:50}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    // Transcripts that failed in this process are skipped, so one bad document cannot stall the backfill
+    private final Set<String> failedIds = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(fixedDelayString = "${transcripts.segments.backfill.intervalMillis:300000}",
+            initialDelayString = "${transcripts.segments.backfill.initialDelayMillis:60000}")
+    public void backfill() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        Mono.defer(this::backfillBatch)
+                .repeat()
+                .takeUntil(moved -> moved == 0)
+                .reduce(0L, Long::sum)
+                .doFinally(signal -> running.set(false))
+                .subscribe(
+                        moved -> {
+                            if (moved > 0) {
+                                log.info("Moved the segments of {} transcripts to the segment index", moved);
+                            }
+                        },
+                        error -> log.error("Transcript segment backfill failed: {}", error.getMessage()));
+    }
+
+    /**
+     * Emits how many transcripts were picked up, 0 once none are left.
+     */
+    private Mono<Long> backfillBatch() {
+        return transcribeMetadataRepository.findWithStoredSegments(Set.copyOf(failedIds), batchSize)
+                .concatMap(metadata -> moveSegments(metadata)
+                        .onErrorResume(error -> {
+                            log.error("Failed to move the segments of transcript {}: {}", metadata.getId(), error.getMessage());
+                            failedIds.add(metadata.getId());
+                            return Mono.empty();
+                        })
+                        .thenReturn(metadata.getId()))
+                .count();
+    }
+
+    private Mono<String> moveSegments(TranscribeCommonMetadata metadata) {
+        String userId = metadata.getCreationUserInfo() == null ? null : metadata.getCreationUserInfo().id();
+        return transcriptSegmentService.indexSegments(metadata.getId(), userId, Flux.fromIterable(metadata.getAudioSegments()))
+                .then(transcribeMetadataRepository.removeStoredSegments(metadata.getId()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.unboxy.gamemanagerservice.service;
+
+import com.unboxy.gamemanagerservice.model.AudioSegment;
+import com.unboxy.gamemanagerservice.model.SearchCriteria;
+import com.unboxy.gamemanagerservice.model.SearchResult;
+import com.unboxy.gamemanagerservice.model.TranscribeCommonMetadata;
+import com.unboxy.gamemanagerservice.model.TranscriptSegment;
+import com.unboxy.gamemanagerservice.repository.TranscribeMetadataRepository;
+import com.unboxy.gamemanagerservice.repository.TranscriptSegmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the segment index in step with transcription results and serves segment search from it: matching segments are
+ * grouped per transcript by the index and the parent transcripts are attached with one ids lookup.
+ */
+@Slf4j
+@Service
+public class TranscriptSegmentService {
+    private final TranscriptSegmentRepository transcriptSegmentRepository;
+    private final TranscribeMetadataRepository transcribeMetadataRepository;
+    private final int batchSize;
+    private final int segmentsPerTranscript;
+
+    public TranscriptSegmentService(TranscriptSegmentRepository transcriptSegmentRepository,
+                                    TranscribeMetadataRepository transcribeMetadataRepository,
+                                    @Value("${transcripts.segments.batchSize:500}") int batchSize,
+                                    @Value("${transcripts.segments.segmentsPerTranscript:3}") int segmentsPerTranscript) {
+        this.transcriptSegmentRepository = transcriptSegmentRepository;
+        this.transcribeMetadataRepository = transcribeMetadataRepository;
+        this.batchSize = batchSize;
+        this.segmentsPerTranscript = segmentsPerTranscript;
+    }
+
+    /**
+     * Writes segments in batches as they arrive, then removes segments left over from an earlier, longer result.
+     * Emits the number of segments written.
+     */
+    public Mono<Long> indexSegments(String transcriptId, String userId, Flux<AudioSegment> segments) {
+        AtomicInteger nextSegmentId = new AtomicInteger();
+        return segments
+                .map(segment -> TranscriptSegment.of(transcriptId, userId, segment))
+                .doOnNext(segment -> nextSegmentId.accumulateAndGet(segment.getSegmentId() + 1, Math::max))
+                .buffer(batchSize)
+                .concatMap(transcriptSegmentRepository::saveSegments)
+                .count()
+                .flatMap(written -> transcriptSegmentRepository.deleteByTranscriptId(transcriptId, nextSegmentId.get())
+                        .doOnNext(stale -> {
+                            if (stale > 0) {
+                                log.info("Removed {} stale segments of transcript {}", stale, transcriptId);
+                            }
+                        })
+                        .thenReturn(written));
+    }
+
+    public Mono<List<AudioSegment>> findSegments(String transcriptId) {
+        return transcriptSegmentRepository.findByTranscriptId(transcriptId)
+                .map(TranscriptSegment::toAudioSegment)
+                .collectList();
+    }
+
+    public Mono<Long> deleteSegments(String transcriptId) {
+        return transcriptSegmentRepository.deleteByTranscriptId(transcriptId, null);
+    }
+
+    /**
+     * Transcripts of the user with matching segments, best match first. Each transcript carries its best matching
+     * segments in time order. Paging is offset based; cursors are not supported by collapsed searches.
+     */
+    public Mono<SearchResult<TranscribeCommonMetadata>> search(SearchCriteria criteria, String userId) {
+        return transcriptSegmentRepository.searchSegments(criteria, userId, segmentsPerTranscript)
+                .flatMap(response -> transcribeMetadataRepository.findByIds(response.segmentsByTranscript().keySet())
+                        .collectMap(TranscribeCommonMetadata::getId, Function.identity())
+                        .map(transcriptsById -> {
+                            List<TranscribeCommonMetadata> items = response.segmentsByTranscript().entrySet().stream()
+                                    .filter(entry -> transcriptsById.containsKey(entry.getKey()))
+                                    .map(entry -> withSegments(transcriptsById.get(entry.getKey()), entry.getValue()))
+                                    .collect(Collectors.toList());
+                            return new SearchResult<>(criteria.getSearchText(), items, response.pagination());
+                        }));
+    }
+
+    private TranscribeCommonMetadata withSegments(TranscribeCommonMetadata metadata, List<TranscriptSegment> segments) {
+        metadata.setAudioSegments(segments.stream().map(TranscriptSegment::toAudioSegment).toList());
+        return metadata;
+    }
+}
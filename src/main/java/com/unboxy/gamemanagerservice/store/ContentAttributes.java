@@ -0,0 +1,13 @@
+package com.unboxy.gamemanagerservice.store;
+
+public record ContentAttributes(String contentType, String cacheControl) {
+    public static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    public static ContentAttributes of(String contentType) {
+        return new ContentAttributes(contentType, null);
+    }
+
+    public static ContentAttributes immutable(String contentType) {
+        return new ContentAttributes(contentType, IMMUTABLE_CACHE_CONTROL);
+    }
+}
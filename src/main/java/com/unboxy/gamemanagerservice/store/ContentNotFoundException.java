@@ -0,0 +1,13 @@
+package com.unboxy.gamemanagerservice.store;
+
+public class ContentNotFoundException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ContentNotFoundException(String key, Throwable cause) {
+        super("NoSuchKey: " + key, cause);
+    }
+
+    public ContentNotFoundException(String key) {
+        this(key, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.unboxy.gamemanagerservice.store;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Storage backend for game content. Keys are full object keys such as {@code games/{id}/index.html};
+ * see {@link GameContentKeys} for how they are built.
+ */
+public interface ContentStore {
+    int MAX_DELETE_BATCH = 1000;
+
+    Mono<Void> put(String key, byte[] content, ContentAttributes attributes);
+
+    /**
+     * Streams the content into the store without buffering it in memory.
+     */
+    Mono<Void> put(String key, Flux<DataBuffer> content, long contentLength, ContentAttributes attributes);
+
+    /**
+     * Reads a whole (small) object. The returned buffer is read-only and owned by the caller.
+     * Fails with {@link ContentNotFoundException} when the key does not exist.
+     */
+    Mono<ByteBuffer> get(String key);
+
+    /**
+     * Like {@link #get(String)}, always read from the store, with the version to pass to
+     * {@link #putIfVersion(String, byte[], ContentAttributes, String)}.
+     */
+    Mono<VersionedContent> getVersioned(String key);
+
+    /**
+     * Writes only if the object is still at expectedVersion, or does not exist yet when expectedVersion is null.
+     * Fails with {@link ContentVersionConflictException} otherwise, so read-modify-write callers can read again and retry.
+     */
+    Mono<Void> putIfVersion(String key, byte[] content, ContentAttributes attributes, String expectedVersion);
+
+    /**
+     * Reads an object as a stream of buffers; callers must release them.
+     */
+    Flux<DataBuffer> stream(String key);
+
+    Mono<Boolean> exists(String key);
+
+    /**
+     * Deletes up to {@link #MAX_DELETE_BATCH} keys in one call and returns how many were removed.
+     */
+    Mono<Integer> delete(List<String> keys);
+
+    Flux<String> list(String prefix);
+
+    Mono<Void> copy(String sourceKey, String targetKey);
+
+    String publicUrl(String key);
+}
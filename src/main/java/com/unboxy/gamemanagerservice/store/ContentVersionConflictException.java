@@ -0,0 +1,13 @@
+package com.unboxy.gamemanagerservice.store;
+
+public class ContentVersionConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ContentVersionConflictException(String key, Throwable cause) {
+        super("Content was modified concurrently: " + key, cause);
+    }
+
+    public ContentVersionConflictException(String key) {
+        this(key, null);
+    }
+}
@@ -0,0 +1,242 @@
+package com.unboxy.gamemanagerservice.store;
+
+import com.google.common.hash.Hashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Local disk backend for dev boxes, edge nodes and offline load tests.
+ * Writes go to a temporary sibling file that is atomically moved into place, so readers never see partial content.
+ * Reads map the file read-only ({@link FileChannel#map}) or stream it with {@link DataBufferUtils#read}.
+ * Content type and cache headers are not persisted; FileSystemContentConfiguration serves the files and derives them from the key.
+ * Versions for conditional puts are content hashes; conditional puts are only serialized within this process.
+ */
+@Component
+@ConditionalOnProperty(name = "content.store.type", havingValue = "filesystem")
+public class FileSystemContentStore implements ContentStore {
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final String publicBaseUrl;
+    private final Object conditionalPutLock = new Object();
+
+    public FileSystemContentStore(@Value("${content.store.filesystem.root:./content-store}") String root,
+                                  @Value("${content.store.filesystem.publicBaseUrl:http://localhost:8080/content}") String publicBaseUrl) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1) : publicBaseUrl;
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] content, ContentAttributes attributes) {
+        return Mono.fromCallable(() -> {
+                    Path target = resolve(key);
+                    Path temp = tempFileFor(target);
+                    Files.write(temp, content);
+                    moveIntoPlace(temp, target);
+                    return target;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Mono<Void> putIfVersion(String key, byte[] content, ContentAttributes attributes, String expectedVersion) {
+        return Mono.fromCallable(() -> {
+                    Path target = resolve(key);
+                    synchronized (conditionalPutLock) {
+                        String currentVersion = Files.isRegularFile(target) ? version(Files.readAllBytes(target)) : null;
+                        if (!Objects.equals(currentVersion, expectedVersion)) {
+                            throw new ContentVersionConflictException(key);
+                        }
+                        Path temp = tempFileFor(target);
+                        Files.write(temp, content);
+                        moveIntoPlace(temp, target);
+                    }
+                    return target;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Mono<Void> put(String key, Flux<DataBuffer> content, long contentLength, ContentAttributes attributes) {
+        return Mono.fromCallable(() -> {
+                    Path target = resolve(key);
+                    return new Path[]{target, tempFileFor(target)};
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(paths -> DataBufferUtils.write(content, paths[1], StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+                        .then(Mono.fromCallable(() -> {
+                            moveIntoPlace(paths[1], paths[0]);
+                            return paths[0];
+                        }).subscribeOn(Schedulers.boundedElastic()))
+                        .onErrorResume(error -> Mono.fromRunnable(() -> deleteQuietly(paths[1])).then(Mono.error(error))))
+                .then();
+    }
+
+    @Override
+    public Mono<ByteBuffer> get(String key) {
+        return Mono.fromCallable(() -> {
+                    try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+                        // The mapping stays valid after the channel is closed; no bytes are copied onto the heap
+                        return (ByteBuffer) channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    } catch (NoSuchFileException e) {
+                        throw new ContentNotFoundException(key, e);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<VersionedContent> getVersioned(String key) {
+        return Mono.fromCallable(() -> {
+                    try {
+                        byte[] content = Files.readAllBytes(resolve(key));
+                        return new VersionedContent(ByteBuffer.wrap(content).asReadOnlyBuffer(), version(content));
+                    } catch (NoSuchFileException e) {
+                        throw new ContentNotFoundException(key, e);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<DataBuffer> stream(String key) {
+        return Flux.defer(() -> {
+            Path path = resolve(key);
+            if (!Files.isRegularFile(path)) {
+                return Flux.error(new ContentNotFoundException(key));
+            }
+            return DataBufferUtils.read(path, DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE);
+        });
+    }
+
+    @Override
+    public Mono<Boolean> exists(String key) {
+        return Mono.fromCallable(() -> Files.isRegularFile(resolve(key)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Integer> delete(List<String> keys) {
+        if (keys.size() > MAX_DELETE_BATCH) {
+            return Mono.error(new IllegalArgumentException("Delete accepts at most " + MAX_DELETE_BATCH + " keys, got " + keys.size()));
+        }
+
+        return Mono.fromCallable(() -> {
+                    int deleted = 0;
+                    for (String key : keys) {
+                        if (Files.deleteIfExists(resolve(key))) {
+                            deleted++;
+                        }
+                    }
+                    return deleted;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<String> list(String prefix) {
+        return Flux.defer(() -> {
+                    // Only walk the deepest directory that the prefix fully names
+                    int lastSlash = prefix.lastIndexOf('/');
+                    Path start = lastSlash < 0 ? root : resolve(prefix.substring(0, lastSlash));
+                    if (!Files.isDirectory(start)) {
+                        return Flux.empty();
+                    }
+                    return Flux.using(() -> Files.walk(start),
+                            paths -> Flux.fromStream(paths
+                                    .filter(Files::isRegularFile)
+                                    .filter(path -> !path.getFileName().toString().endsWith(TEMP_SUFFIX))
+                                    .map(this::toKey)
+                                    .filter(key -> key.startsWith(prefix))
+                                    .sorted()),
+                            Stream::close);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> copy(String sourceKey, String targetKey) {
+        return Mono.fromCallable(() -> {
+                    Path source = resolve(sourceKey);
+                    Path target = resolve(targetKey);
+                    Path temp = tempFileFor(target);
+                    try {
+                        Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (NoSuchFileException e) {
+                        deleteQuietly(temp);
+                        throw new ContentNotFoundException(sourceKey, e);
+                    }
+                    moveIntoPlace(temp, target);
+                    return target;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return publicBaseUrl + "/" + key;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid content key: " + key);
+        }
+        return path;
+    }
+
+    private String version(byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
+    }
+
+    private String toKey(Path path) {
+        return root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+
+    private Path tempFileFor(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return Files.createFile(target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + TEMP_SUFFIX));
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // best effort cleanup of a temporary file
+        }
+    }
+}
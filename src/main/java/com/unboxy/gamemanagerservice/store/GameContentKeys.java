@@ -0,0 +1,42 @@
+package com.unboxy.gamemanagerservice.store;
+
+public class GameContentKeys {
+    public static final String GAMES_ROOT = "games/";
+    public static final String ENTRY_FILE = "index.html";
+    public static final String ASSET_MANIFEST_FILE = "assets.json";
+    public static final String ASSETS_ROOT = "assets/";
+
+    public static String gamePrefix(String gameId) {
+        return GAMES_ROOT + gameId + "/";
+    }
+
+    public static String gameFile(String gameId, String fileName) {
+        return gamePrefix(gameId) + fileName;
+    }
+
+    public static String revisionPrefix(String gameId, String revision) {
+        return gamePrefix(gameId) + "revisions/" + revision + "/";
+    }
+
+    public static String revisionFile(String gameId, String revision, String fileName) {
+        return revisionPrefix(gameId, revision) + fileName;
+    }
+
+    /**
+     * Assets are shared by every game that uploads the same bytes, so their key only depends on the content hash.
+     */
+    public static String asset(String contentHash, String extension) {
+        return ASSETS_ROOT + contentHash + (extension.isEmpty() ? "" : "." + extension);
+    }
+
+    public static String assetManifest(String gameId) {
+        return gameFile(gameId, ASSET_MANIFEST_FILE);
+    }
+
+    /**
+     * Key of a path relative to the games root, e.g. {@code {id}/styles.css}.
+     */
+    public static String gamesPath(String path) {
+        return GAMES_ROOT + path;
+    }
+}
@@ -0,0 +1,225 @@
+package com.unboxy.gamemanagerservice.store;
+
+import com.unboxy.gamemanagerservice.repository.S3HedgingPolicy;
+import com.unboxy.gamemanagerservice.utils.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "content.store.type", havingValue = "s3", matchIfMissing = true)
+public class S3ContentStore implements ContentStore {
+    private static final String READ_METRIC = "s3.game.reads";
+    private static final String IF_MATCH = "If-Match";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+
+    private final S3AsyncClient s3Client;
+    private final MeterRegistry meterRegistry;
+    private final S3HedgingPolicy hedgingPolicy;
+    private final String bucketName;
+
+    private final SingleFlight<String, ByteBuffer> reads = new SingleFlight<>();
+
+    public S3ContentStore(S3AsyncClient s3Client,
+                          MeterRegistry meterRegistry,
+                          S3HedgingPolicy hedgingPolicy,
+                          @Value("${aws.bucketName}") String bucketName) {
+        this.s3Client = s3Client;
+        this.meterRegistry = meterRegistry;
+        this.hedgingPolicy = hedgingPolicy;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] content, ContentAttributes attributes) {
+        return Mono.fromFuture(() -> s3Client.putObject(putRequest(key, content.length, attributes), AsyncRequestBody.fromBytes(content)))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> put(String key, Flux<DataBuffer> content, long contentLength, ContentAttributes attributes) {
+        Flux<ByteBuffer> body = content.map(dataBuffer -> {
+            byte[] bytes = new byte[dataBuffer.readableByteCount()];
+            dataBuffer.read(bytes);
+            DataBufferUtils.release(dataBuffer);
+            return ByteBuffer.wrap(bytes);
+        });
+
+        return Mono.fromFuture(() -> s3Client.putObject(putRequest(key, contentLength, attributes), AsyncRequestBody.fromPublisher(body)))
+                .then();
+    }
+
+    /**
+     * Uses S3 conditional writes: If-Match on the ETag read before, or If-None-Match for an object that must not exist.
+     */
+    @Override
+    public Mono<Void> putIfVersion(String key, byte[] content, ContentAttributes attributes, String expectedVersion) {
+        PutObjectRequest putObjectRequest = putRequest(key, content.length, attributes).toBuilder()
+                .overrideConfiguration(override -> {
+                    if (expectedVersion == null) {
+                        override.putHeader(IF_NONE_MATCH, "*");
+                    } else {
+                        override.putHeader(IF_MATCH, expectedVersion);
+                    }
+                })
+                .build();
+
+        return Mono.fromFuture(() -> s3Client.putObject(putObjectRequest, AsyncRequestBody.fromBytes(content)))
+                // 412 when the precondition failed, 409 when a concurrent conditional write won, 404 when deleted since read
+                .onErrorMap(S3Exception.class, e -> e.statusCode() == 412 || e.statusCode() == 409 || e.statusCode() == 404
+                        ? new ContentVersionConflictException(key, e)
+                        : e)
+                .then();
+    }
+
+    private PutObjectRequest putRequest(String key, long contentLength, ContentAttributes attributes) {
+        return PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(attributes.contentType())
+                .cacheControl(attributes.cacheControl())
+                .contentLength(contentLength)
+                .build();
+    }
+
+    @Override
+    public Mono<ByteBuffer> get(String key) {
+        // Concurrent readers share one GetObject; each gets its own read-only view so positions don't interfere
+        return reads.execute(bucketName + "/" + key,
+                        () -> hedgingPolicy.execute(() -> fetchObject(key)),
+                        () -> meterRegistry.counter(READ_METRIC, "outcome", "fetched").increment(),
+                        () -> meterRegistry.counter(READ_METRIC, "outcome", "coalesced").increment())
+                .map(ByteBuffer::asReadOnlyBuffer);
+    }
+
+    private Mono<ByteBuffer> fetchObject(String key) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+
+        return Mono.fromFuture(() -> s3Client.getObject(getObjectRequest, AsyncResponseTransformer.toBytes()))
+                .map(getObjectResponse -> getObjectResponse.asByteBuffer())
+                .onErrorMap(S3Exception.class, e -> e.statusCode() == 404 ? new ContentNotFoundException(key, e) : e);
+    }
+
+    @Override
+    public Mono<VersionedContent> getVersioned(String key) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+
+        return Mono.fromFuture(() -> s3Client.getObject(getObjectRequest, AsyncResponseTransformer.toBytes()))
+                .map(response -> new VersionedContent(response.asByteBuffer().asReadOnlyBuffer(), response.response().eTag()))
+                .onErrorMap(S3Exception.class, e -> e.statusCode() == 404 ? new ContentNotFoundException(key, e) : e);
+    }
+
+    @Override
+    public Flux<DataBuffer> stream(String key) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+
+        return Mono.fromFuture(() -> s3Client.getObject(getObjectRequest, AsyncResponseTransformer.toPublisher()))
+                .onErrorMap(S3Exception.class, e -> e.statusCode() == 404 ? new ContentNotFoundException(key, e) : e)
+                .flatMapMany(Flux::from)
+                .map(byteBuffer -> (DataBuffer) DefaultDataBufferFactory.sharedInstance.wrap(byteBuffer));
+    }
+
+    @Override
+    public Mono<Boolean> exists(String key) {
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+
+        return Mono.fromFuture(() -> s3Client.headObject(headObjectRequest))
+                .map(headObjectResponse -> true)
+                .onErrorResume(S3Exception.class, e -> e.statusCode() == 404 ? Mono.just(false) : Mono.error(e));
+    }
+
+    @Override
+    public Mono<Integer> delete(List<String> keys) {
+        if (keys.isEmpty()) {
+            return Mono.just(0);
+        }
+        if (keys.size() > MAX_DELETE_BATCH) {
+            return Mono.error(new IllegalArgumentException("DeleteObjects accepts at most " + MAX_DELETE_BATCH + " keys, got " + keys.size()));
+        }
+
+        List<ObjectIdentifier> objects = keys.stream()
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .toList();
+        DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(objects).quiet(true).build())
+                .build();
+
+        return Mono.fromFuture(() -> s3Client.deleteObjects(deleteObjectsRequest))
+                .flatMap(deleteObjectsResponse -> {
+                    if (deleteObjectsResponse.hasErrors() && !deleteObjectsResponse.errors().isEmpty()) {
+                        var error = deleteObjectsResponse.errors().get(0);
+                        return Mono.error(new RuntimeException("Failed to delete " + deleteObjectsResponse.errors().size()
+                                + " objects, first: " + error.key() + " - " + error.code() + " " + error.message()));
+                    }
+                    return Mono.just(objects.size());
+                });
+    }
+
+    @Override
+    public Flux<String> list(String prefix) {
+        ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+
+        return Flux.from(s3Client.listObjectsV2Paginator(listRequest).contents())
+                .map(S3Object::key);
+    }
+
+    /**
+     * Server-side copy; the object's bytes never pass through this service.
+     */
+    @Override
+    public Mono<Void> copy(String sourceKey, String targetKey) {
+        CopyObjectRequest copyObjectRequest = CopyObjectRequest.builder()
+                .sourceBucket(bucketName)
+                .sourceKey(sourceKey)
+                .destinationBucket(bucketName)
+                .destinationKey(targetKey)
+                .build();
+
+        return Mono.fromFuture(() -> s3Client.copyObject(copyObjectRequest))
+                .onErrorMap(S3Exception.class, e -> e.statusCode() == 404 ? new ContentNotFoundException(sourceKey, e) : e)
+                .then();
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return String.format("https://%s.s3.amazonaws.com/%s", bucketName, key);
+    }
+}
@@ -0,0 +1,9 @@
+package com.unboxy.gamemanagerservice.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A whole object together with the version a conditional put compares against (the ETag on S3).
+ */
+public record VersionedContent(ByteBuffer content, String version) {
+}
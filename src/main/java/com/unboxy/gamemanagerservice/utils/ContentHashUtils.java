@@ -0,0 +1,30 @@
+package com.unboxy.gamemanagerservice.utils;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ContentHashUtils {
+    private static final int REVISION_HASH_LENGTH = 32;
+
+    /**
+     * Hash of a whole project (file names and contents), independent of map iteration order.
+     */
+    public static String revisionHash(Map<String, String> files) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        new TreeMap<>(files).forEach((name, content) -> {
+            hasher.putString(name, StandardCharsets.UTF_8);
+            hasher.putByte((byte) 0);
+            hasher.putString(content, StandardCharsets.UTF_8);
+            hasher.putByte((byte) 0);
+        });
+        return hasher.hash().toString().substring(0, REVISION_HASH_LENGTH);
+    }
+
+    public static String sha256Hex(byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.unboxy.gamemanagerservice.utils;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Values loaded once per HTTP request. {@code ReactiveContextFilter} puts a fresh instance into the Reactor context of every
+ * request; code running outside a request (SQS listeners, schedulers) finds none and always loads.
+ */
+public class RequestMemo {
+    public static final String CONTEXT_KEY = "requestMemo";
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    public static <T> Mono<T> getOrLoad(String key, Supplier<Mono<T>> loader) {
+        return Mono.deferContextual(ctx -> {
+            RequestMemo memo = from(ctx);
+            if (memo == null) {
+                return loader.get();
+            }
+
+            @SuppressWarnings("unchecked")
+            T cached = (T) memo.values.get(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return loader.get().doOnNext(value -> memo.values.put(key, value));
+        });
+    }
+
+    /**
+     * Replaces the memoized value after a write, so later reads in the same request see it.
+     */
+    public static <T> Mono<T> update(String key, T value) {
+        return Mono.deferContextual(ctx -> {
+            RequestMemo memo = from(ctx);
+            if (memo != null && value != null) {
+                memo.values.put(key, value);
+            }
+            return Mono.justOrEmpty(value);
+        });
+    }
+
+    private static RequestMemo from(ContextView ctx) {
+        return ctx.<RequestMemo>getOrEmpty(CONTEXT_KEY).orElse(null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.unboxy.gamemanagerservice.utils;
+
+import com.unboxy.gamemanagerservice.model.LogicalOperatorType;
+import com.unboxy.gamemanagerservice.model.Query;
+import com.unboxy.gamemanagerservice.model.QueryClause;
+import com.unboxy.gamemanagerservice.model.SearchCriteria;
+import com.unboxy.gamemanagerservice.model.SearchOperatorType;
+import org.springframework.util.CollectionUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Canonical cache keys for {@link SearchCriteria}. Criteria that only differ in the order of queries, clauses or
+ * IN/EQALL values produce the same key; every part is length-prefixed, so values containing separators cannot collide.
+ */
+public final class SearchCriteriaKeys {
+    private static final Set<SearchOperatorType> SET_OPERATORS = Set.of(SearchOperatorType.IN, SearchOperatorType.EQALL);
+
+    private SearchCriteriaKeys() {
+    }
+
+    /**
+     * Covers what {@link SearchQueryUtils#addSearchCriteriaFilters} reads: the queries and how they are combined.
+     */
+    public static String filterKey(SearchCriteria criteria) {
+        if (CollectionUtils.isEmpty(criteria.getQueries())) {
+            return "";
+        }
+        String queries = criteria.getQueries().stream()
+                .map(SearchCriteriaKeys::queryKey)
+                .sorted()
+                .collect(Collectors.joining());
+        return part(operatorKey(criteria.getQueryOperator())) + part(queries);
+    }
+
+    /**
+     * Covers everything that shapes a result page. Cursor requests are not meant to be keyed.
+     */
+    public static String resultKey(SearchCriteria criteria) {
+        return part(String.valueOf(criteria.getSearchText()))
+                + part(String.valueOf(criteria.getPageNumber()))
+                + part(String.valueOf(criteria.getPageSize()))
+                + part(filterKey(criteria));
+    }
+
+    private static String queryKey(Query query) {
+        List<QueryClause> clauses = query.clauses() == null ? List.of() : query.clauses();
+        String clauseKeys = clauses.stream()
+                .map(SearchCriteriaKeys::clauseKey)
+                .sorted()
+                .collect(Collectors.joining());
+        return part(operatorKey(query.operator()) + part(clauseKeys));
+    }
+
+    private static String clauseKey(QueryClause clause) {
+        String rhs = String.valueOf(clause.rhs());
+        if (SET_OPERATORS.contains(clause.operator())) {
+            rhs = Arrays.stream(rhs.split(",")).sorted().collect(Collectors.joining(","));
+        }
+        return part(part(String.valueOf(clause.lhs())) + part(String.valueOf(clause.operator())) + part(rhs));
+    }
+
+    // Anything but AND is combined with should, like in SearchQueryUtils
+    private static String operatorKey(LogicalOperatorType operator) {
+        return operator == LogicalOperatorType.AND ? "AND" : "OR";
+    }
+
+    private static String part(String value) {
+        return value.length() + ":" + value;
+    }
+}
@@ -1,5 +1,7 @@
 package com.unboxy.gamemanagerservice.utils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.unboxy.gamemanagerservice.model.LogicalOperatorType;
@@ -10,7 +12,10 @@ import org.opensearch.client.json.JsonData;
 import org.opensearch.client.opensearch._types.FieldValue;
 import org.opensearch.client.opensearch._types.Script;
 import org.opensearch.client.opensearch._types.query_dsl.*;
+import org.opensearch.client.opensearch.core.search.Highlight;
+import org.opensearch.client.opensearch.core.search.HighlightField;
 import org.opensearch.client.opensearch.core.search.InnerHits;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
@@ -29,6 +34,15 @@ public class SearchQueryUtils {
 
     private static final Set<String> nestedScopes = Set.of("audioSegments");
 
+    // Built filter trees keyed by SearchCriteriaKeys.filterKey; client Query objects are immutable and safe to share
+    private final Cache<String, Query> compiledFilters;
+
+    public SearchQueryUtils(@Value("${search.compiledQueryCache.maxSize:1000}") long compiledQueryCacheSize) {
+        this.compiledFilters = CacheBuilder.newBuilder()
+                .maximumSize(compiledQueryCacheSize)
+                .build();
+    }
+
     public BoolQuery.Builder addMustAndMustNotFields(Map<String, List<String>> mustFieldsToQuery,
                                                      Map<String, List<String>> mustNotFieldsToQuery) {
         BoolQuery.Builder baseQueryBuilder = QueryBuilders.bool();
@@ -103,31 +117,70 @@ public class SearchQueryUtils {
         return boolBuilder;
     }
 
+    /**
+     * Relevance part of a search: one multi_match over the weighted fields, scored by the best matching field.
+     */
+    public BoolQuery.Builder addMultiMatchQuery(@NonNull BoolQuery.Builder boolBuilder, String searchText, @NonNull Map<String, Float> textSearchFields) {
+        if (hasText(searchText)) {
+            boolBuilder.must(QueryBuilders.multiMatch()
+                    .query(searchText)
+                    .fields(convertToBoostedFieldList(textSearchFields))
+                    .type(TextQueryType.BestFields)
+                    .build()
+                    .toQuery());
+        }
+        return boolBuilder;
+    }
+
+    /**
+     * Same clauses as {@link #addSearchCriteriaFilters}, but in filter context: they do not score and OpenSearch can cache them.
+     */
+    public BoolQuery.Builder addSearchCriteriaFilterContext(@NonNull BoolQuery.Builder boolBuilder, @NonNull SearchCriteria criteria) {
+        if(!CollectionUtils.isEmpty(criteria.getQueries())) {
+            boolBuilder.filter(compiledFilters.asMap().computeIfAbsent(SearchCriteriaKeys.filterKey(criteria), key -> buildSearchCriteriaFilters(criteria)));
+        }
+
+        return boolBuilder;
+    }
+
+    public Highlight toHighlight(@NonNull List<String> fields, int fragmentSize) {
+        return Highlight.of(highlightBuilder -> {
+            fields.forEach(field -> highlightBuilder.fields(field, HighlightField.of(fieldBuilder -> fieldBuilder
+                    .fragmentSize(fragmentSize)
+                    .numberOfFragments(1))));
+            return highlightBuilder;
+        });
+    }
+
     public BoolQuery.Builder addSearchCriteriaFilters(@NonNull BoolQuery.Builder boolBuilder, @NonNull SearchCriteria criteria) {
         if(!CollectionUtils.isEmpty(criteria.getQueries())) {
-            var allQueries = QueryBuilders.bool();
-            for(com.unboxy.gamemanagerservice.model.Query query: criteria.getQueries()) {
-                Multimap<String, QueryClause> rangeClauses = ArrayListMultimap.create();
-                Multimap<String, Query> nestedQueries = ArrayListMultimap.create(); //need to add all nested queries to the same sub query
-                BoolQuery.Builder innerQueryBuilder = QueryBuilders.bool();
-                for (QueryClause clause : query.clauses()) {
-                    buildQuery(clause, innerQueryBuilder, rangeClauses, nestedQueries, query.operator());
-                }
+            boolBuilder.must(compiledFilters.asMap().computeIfAbsent(SearchCriteriaKeys.filterKey(criteria), key -> buildSearchCriteriaFilters(criteria)));
+        }
 
-                handleAllRangeClausesForQuery(query, innerQueryBuilder, rangeClauses, nestedQueries);
-                handleAllNestedClausesForQuery(query, innerQueryBuilder, nestedQueries);
+        return boolBuilder;
+    }
 
-                if(criteria.getQueryOperator() == LogicalOperatorType.AND) {
-                    allQueries.must(innerQueryBuilder.build().toQuery());
-                } else {
-                    allQueries.should(innerQueryBuilder.build().toQuery());
-                }
+    private Query buildSearchCriteriaFilters(SearchCriteria criteria) {
+        var allQueries = QueryBuilders.bool();
+        for(com.unboxy.gamemanagerservice.model.Query query: criteria.getQueries()) {
+            Multimap<String, QueryClause> rangeClauses = ArrayListMultimap.create();
+            Multimap<String, Query> nestedQueries = ArrayListMultimap.create(); //need to add all nested queries to the same sub query
+            BoolQuery.Builder innerQueryBuilder = QueryBuilders.bool();
+            for (QueryClause clause : query.clauses()) {
+                buildQuery(clause, innerQueryBuilder, rangeClauses, nestedQueries, query.operator());
             }
 
-            boolBuilder.must(allQueries.build().toQuery());
+            handleAllRangeClausesForQuery(query, innerQueryBuilder, rangeClauses, nestedQueries);
+            handleAllNestedClausesForQuery(query, innerQueryBuilder, nestedQueries);
+
+            if(criteria.getQueryOperator() == LogicalOperatorType.AND) {
+                allQueries.must(innerQueryBuilder.build().toQuery());
+            } else {
+                allQueries.should(innerQueryBuilder.build().toQuery());
+            }
         }
 
-        return boolBuilder;
+        return allQueries.build().toQuery();
     }
 
     private void handleAllNestedClausesForQuery(com.unboxy.gamemanagerservice.model.Query query, BoolQuery.Builder innerQueryBuilder, Multimap<String, Query> nestedQueries) {
@@ -0,0 +1,51 @@
+package com.unboxy.gamemanagerservice.utils;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key into a single in-flight call.
+ * The first subscriber for a key triggers the load; everyone arriving before it terminates shares the result.
+ * Nothing is cached once the load completes.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader, Runnable onLoad, Runnable onShared) {
+        return Mono.defer(() -> {
+            boolean[] leader = {false};
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return newFlight(k, loader);
+            });
+
+            if (leader[0]) {
+                onLoad.run();
+            } else {
+                onShared.run();
+            }
+            return shared;
+        });
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return execute(key, loader, () -> {}, () -> {});
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<V> newFlight(K key, Supplier<Mono<V>> loader) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        // cache() keeps the upstream call alive even if the first subscriber cancels, so late joiners still get the value
+        self.set(Mono.defer(loader)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache());
+        return self.get();
+    }
+}
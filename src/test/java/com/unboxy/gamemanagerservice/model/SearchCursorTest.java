@@ -0,0 +1,52 @@
+package com.unboxy.gamemanagerservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTest {
+
+    @Test
+    void roundTripsSortValuesAndPitId() {
+        SearchCursor cursor = new SearchCursor(List.of("2024-05-01T10:15:30.000", "game-42"), "pit/id+with=chars");
+
+        assertThat(SearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsWithoutPitId() {
+        SearchCursor cursor = new SearchCursor(List.of("1714558530000", "game-42"), null);
+
+        assertThat(SearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        SearchCursor cursor = new SearchCursor(List.of("???>>>~~~", "\u00ff\u00fe"), "pit");
+
+        assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void blankTokenIsTheFirstPage() {
+        assertThat(SearchCursor.decode(null)).isNull();
+        assertThat(SearchCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("{\"searchAfter\":")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("{\"searchAfter\":[],\"pitId\":\"pit\"}")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encode("{\"pitId\":\"pit\"}")));
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
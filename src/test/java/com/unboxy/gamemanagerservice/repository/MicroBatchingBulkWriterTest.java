@@ -0,0 +1,131 @@
+package com.unboxy.gamemanagerservice.repository;
+
+import com.unboxy.gamemanagerservice.repository.MicroBatchingBulkWriter.BulkWrite;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicroBatchingBulkWriterTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration LONG_DELAY = Duration.ofSeconds(30);
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private MicroBatchingBulkWriter<String> writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheDelay() {
+        writer = new MicroBatchingBulkWriter<>(recordingExecutor(), 3, LONG_DELAY, 1);
+
+        List<String> results = Flux.range(0, 3)
+                .flatMap(i -> writer.submit(write("doc-" + i)))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertThat(results).containsExactlyInAnyOrder("doc-0", "doc-1", "doc-2");
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder("doc-0", "doc-1", "doc-2");
+    }
+
+    @Test
+    void partialBatchIsSentAfterTheDelay() {
+        writer = new MicroBatchingBulkWriter<>(recordingExecutor(), 100, Duration.ofMillis(50), 1);
+
+        List<String> results = Flux.range(0, 2)
+                .flatMap(i -> writer.submit(write("doc-" + i)))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertThat(results).containsExactlyInAnyOrder("doc-0", "doc-1");
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void writesBeyondTheBatchSizeGoToTheNextBatch() {
+        writer = new MicroBatchingBulkWriter<>(recordingExecutor(), 2, Duration.ofMillis(50), 2);
+
+        Flux.range(0, 5)
+                .flatMap(i -> writer.submit(write("doc-" + i)))
+                .blockLast(TIMEOUT);
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(5);
+    }
+
+    @Test
+    void everyWriteGetsItsOwnItemOutcome() {
+        writer = new MicroBatchingBulkWriter<>(writes -> Mono.just(writes.stream()
+                .map(write -> write.id().equals("bad")
+                        ? Mono.<String>error(new IllegalStateException("rejected " + write.id()))
+                        : Mono.just(write.metadata()))
+                .toList()), 2, LONG_DELAY, 1);
+
+        Mono<String> good = writer.submit(write("good")).cache();
+        Mono<String> bad = writer.submit(write("bad")).cache();
+        good.subscribe(value -> {}, error -> {});
+        bad.subscribe(value -> {}, error -> {});
+
+        StepVerifier.create(good).expectNext("good").verifyComplete();
+        StepVerifier.create(bad).expectErrorMessage("rejected bad").verify(TIMEOUT);
+    }
+
+    @Test
+    void failedBulkRequestFailsEveryWriteInTheBatch() {
+        writer = new MicroBatchingBulkWriter<>(writes -> Mono.error(new IllegalStateException("cluster unavailable")),
+                2, LONG_DELAY, 1);
+
+        Mono<String> first = writer.submit(write("doc-0")).cache();
+        Mono<String> second = writer.submit(write("doc-1")).cache();
+        first.subscribe(value -> {}, error -> {});
+        second.subscribe(value -> {}, error -> {});
+
+        StepVerifier.create(first).expectErrorMessage("cluster unavailable").verify(TIMEOUT);
+        StepVerifier.create(second).expectErrorMessage("cluster unavailable").verify(TIMEOUT);
+    }
+
+    @Test
+    void shutdownFlushesBufferedWritesAndWaitsForThem() {
+        // Slow bulk responses, so shutdown has to wait for the request it started
+        Function<List<BulkWrite<String>>, Mono<List<Mono<String>>>> executor = recordingExecutor();
+        writer = new MicroBatchingBulkWriter<>(writes -> Mono.delay(Duration.ofMillis(200)).then(executor.apply(writes)),
+                100, LONG_DELAY, 1);
+
+        Mono<String> first = writer.submit(write("doc-0")).cache();
+        Mono<String> second = writer.submit(write("doc-1")).cache();
+        first.subscribe();
+        second.subscribe();
+
+        writer.shutdown();
+        writer = null;
+
+        StepVerifier.create(first).expectNext("doc-0").verifyComplete();
+        StepVerifier.create(second).expectNext("doc-1").verifyComplete();
+        assertThat(batches).containsExactly(List.of("doc-0", "doc-1"));
+    }
+
+    private Function<List<BulkWrite<String>>, Mono<List<Mono<String>>>> recordingExecutor() {
+        return writes -> {
+            batches.add(writes.stream().map(BulkWrite::id).toList());
+            return Mono.just(writes.stream().map(write -> Mono.just(write.metadata())).toList());
+        };
+    }
+
+    private static BulkWrite<String> write(String id) {
+        return new BulkWrite<>(id, id, true);
+    }
+}
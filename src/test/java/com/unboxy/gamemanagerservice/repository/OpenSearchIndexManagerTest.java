@@ -0,0 +1,472 @@
+package com.unboxy.gamemanagerservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.core.PutScriptRequest;
+import org.opensearch.client.opensearch.core.ReindexRequest;
+import org.opensearch.client.opensearch.indices.CloneIndexRequest;
+import org.opensearch.client.opensearch.indices.CreateIndexRequest;
+import org.opensearch.client.opensearch.indices.DeleteIndexRequest;
+import org.opensearch.client.opensearch.indices.ExistsAliasRequest;
+import org.opensearch.client.opensearch.indices.ExistsRequest;
+import org.opensearch.client.opensearch.indices.GetAliasRequest;
+import org.opensearch.client.opensearch.indices.GetMappingRequest;
+import org.opensearch.client.opensearch.indices.IndexSettings;
+import org.opensearch.client.opensearch.indices.PutIndicesSettingsRequest;
+import org.opensearch.client.opensearch.indices.UpdateAliasesRequest;
+import org.opensearch.client.opensearch.indices.update_aliases.Action;
+import org.opensearch.client.opensearch.tasks.GetTasksRequest;
+import org.opensearch.client.transport.Endpoint;
+import org.opensearch.client.transport.JsonEndpoint;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.opensearch.client.transport.TransportOptions;
+import org.opensearch.client.transport.endpoints.BooleanResponse;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenSearchIndexManagerTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String ALIAS = GameMetadataRepository.INDEX;
+    private static final String WRITE_ALIAS = OpenSearchIndexManager.writeAlias(ALIAS);
+
+    private final FakeCluster cluster = new FakeCluster();
+    private final List<OpenSearchIndexManager> managers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        managers.forEach(OpenSearchIndexManager::shutdown);
+    }
+
+    @Test
+    void freshClusterGetsTheFirstVersionBehindBothAliases() {
+        newManager().bootstrap().block(TIMEOUT);
+
+        assertThat(cluster.aliasTargets(ALIAS)).containsExactly(ALIAS + "_v1");
+        assertThat(cluster.aliasTargets(WRITE_ALIAS)).containsExactly(ALIAS + "_v1");
+        assertThat(cluster.requests()).noneMatch(request -> request.startsWith("reindex"));
+        assertThat(cluster.requests()).contains("put script");
+    }
+
+    @Test
+    void upToDateIndexIsLeftAlone() {
+        newManager().bootstrap().block(TIMEOUT);
+        cluster.clearRequests();
+
+        newManager().bootstrap().block(TIMEOUT);
+
+        assertThat(cluster.requests()).noneMatch(request -> request.startsWith("create") || request.startsWith("reindex"));
+        assertThat(cluster.aliasTargets(ALIAS)).containsExactly(ALIAS + "_v1");
+    }
+
+    @Test
+    void changedSchemaIsReindexedIntoTheNextVersionBeforeTheAliasesMove() {
+        newManager().bootstrap().block(TIMEOUT);
+        cluster.setSchemaHash(ALIAS + "_v1", "stale");
+        cluster.clearRequests();
+
+        newManager().bootstrap().block(TIMEOUT);
+        cluster.awaitMigration(ALIAS, ALIAS + "_v2");
+
+        assertThat(cluster.aliasTargets(WRITE_ALIAS)).containsExactly(ALIAS + "_v2");
+        assertThat(cluster.indexExists(ALIAS + "_v1")).isTrue();
+        assertThat(cluster.requestsFor(ALIAS)).containsExactly(
+                "create " + ALIAS + "_v2",
+                "reindex " + ALIAS + "_v1 -> " + ALIAS + "_v2",
+                "reindex " + ALIAS + "_v1 -> " + ALIAS + "_v2",
+                "settings " + ALIAS + "_v2",
+                "aliases -" + ALIAS + "_v1:" + ALIAS + " -" + ALIAS + "_v1:" + WRITE_ALIAS
+                        + " +" + ALIAS + "_v2:" + ALIAS + " +" + ALIAS + "_v2:" + WRITE_ALIAS,
+                "reindex " + ALIAS + "_v1 -> " + ALIAS + "_v2");
+    }
+
+    @Test
+    void legacyIndexIsWriteBlockedClonedAndThenMigrated() {
+        cluster.createLegacyIndex(ALIAS);
+
+        newManager().bootstrap().block(TIMEOUT);
+        cluster.awaitMigration(ALIAS, ALIAS + "_v1");
+
+        assertThat(cluster.indexExists(ALIAS)).isFalse();
+        assertThat(cluster.indexExists(ALIAS + "_v0")).isTrue();
+        assertThat(cluster.isWriteBlocked(ALIAS + "_v0")).isFalse();
+        assertThat(cluster.aliasTargets(WRITE_ALIAS)).containsExactly(ALIAS + "_v1");
+        assertThat(cluster.requestsFor(ALIAS)).startsWith(
+                "write block " + ALIAS + "=true",
+                "clone " + ALIAS + " -> " + ALIAS + "_v0",
+                "aliases x" + ALIAS + " +" + ALIAS + "_v0:" + ALIAS + " +" + ALIAS + "_v0:" + WRITE_ALIAS,
+                "create " + ALIAS + "_v1",
+                "reindex " + ALIAS + "_v0 -> " + ALIAS + "_v1");
+    }
+
+    @Test
+    void interruptedAdoptionIsResumedFromTheAliasSwitch() {
+        // Crashed after the clone: the legacy index is still write-blocked and the clone has no aliases
+        cluster.createLegacyIndex(ALIAS);
+        cluster.setWriteBlocked(ALIAS);
+        cluster.createLegacyIndex(ALIAS + "_v0");
+
+        newManager().bootstrap().block(TIMEOUT);
+        cluster.awaitMigration(ALIAS, ALIAS + "_v1");
+
+        assertThat(cluster.indexExists(ALIAS)).isFalse();
+        assertThat(cluster.requestsFor(ALIAS)).noneMatch(request -> request.startsWith("clone"));
+        assertThat(cluster.requestsFor(ALIAS)).startsWith(
+                "write block " + ALIAS + "=true",
+                "reindex " + ALIAS + " -> " + ALIAS + "_v0",
+                "aliases x" + ALIAS + " +" + ALIAS + "_v0:" + ALIAS + " +" + ALIAS + "_v0:" + WRITE_ALIAS);
+    }
+
+    @Test
+    void interruptedMigrationIsResumedIntoTheExistingTarget() {
+        newManager().bootstrap().block(TIMEOUT);
+        String schemaHash = cluster.schemaHash(ALIAS + "_v1");
+        // Crashed while reindexing: the next version exists with the current schema but has no aliases
+        cluster.setSchemaHash(ALIAS + "_v1", "stale");
+        cluster.createIndex(ALIAS + "_v2", schemaHash);
+        cluster.clearRequests();
+
+        newManager().bootstrap().block(TIMEOUT);
+        cluster.awaitMigration(ALIAS, ALIAS + "_v2");
+
+        assertThat(cluster.aliasTargets(WRITE_ALIAS)).containsExactly(ALIAS + "_v2");
+        assertThat(cluster.requestsFor(ALIAS)).noneMatch(request -> request.startsWith("create") || request.startsWith("delete"));
+        assertThat(cluster.requestsFor(ALIAS)).startsWith("reindex " + ALIAS + "_v1 -> " + ALIAS + "_v2");
+    }
+
+    @Test
+    void leftoverTargetOfAnOlderSchemaIsRecreated() {
+        newManager().bootstrap().block(TIMEOUT);
+        String schemaHash = cluster.schemaHash(ALIAS + "_v1");
+        cluster.setSchemaHash(ALIAS + "_v1", "stale");
+        cluster.createIndex(ALIAS + "_v2", "older");
+        cluster.clearRequests();
+
+        newManager().bootstrap().block(TIMEOUT);
+        cluster.awaitMigration(ALIAS, ALIAS + "_v2");
+
+        assertThat(cluster.schemaHash(ALIAS + "_v2")).isEqualTo(schemaHash);
+        assertThat(cluster.requestsFor(ALIAS)).startsWith(
+                "delete " + ALIAS + "_v2",
+                "create " + ALIAS + "_v2",
+                "reindex " + ALIAS + "_v1 -> " + ALIAS + "_v2");
+    }
+
+    @Test
+    void writesUseTheReadNameUntilTheWriteAliasExists() {
+        cluster.createLegacyIndex(ALIAS);
+        OpenSearchIndexManager manager = newManager();
+
+        assertThat(manager.writeTarget(ALIAS)).isEqualTo(ALIAS);
+
+        manager.bootstrap().block(TIMEOUT);
+
+        assertThat(manager.writeTarget(ALIAS)).isEqualTo(WRITE_ALIAS);
+    }
+
+    @Test
+    void failedCloneLiftsTheWriteBlock() {
+        cluster.createLegacyIndex(ALIAS);
+        cluster.failClones();
+
+        assertThatThrownBy(() -> newManager().bootstrap().block(TIMEOUT))
+                .hasMessageContaining("clone failed");
+
+        assertThat(cluster.indexExists(ALIAS)).isTrue();
+        assertThat(cluster.isWriteBlocked(ALIAS)).isFalse();
+        assertThat(cluster.aliasTargets(ALIAS)).isEmpty();
+    }
+
+    private OpenSearchIndexManager newManager() {
+        OpenSearchIndexManager manager = new OpenSearchIndexManager(new OpenSearchAsyncClient(cluster), cluster.jsonpMapper(),
+                new ObjectMapper(), true, false, 1L);
+        managers.add(manager);
+        return manager;
+    }
+
+    /**
+     * Just enough of a cluster for the index manager: indices with the schema hash from their mapping _meta, aliases,
+     * write blocks and instantly completing reindex tasks. Responses are parsed from JSON like the real transport does.
+     */
+    private static class FakeCluster implements OpenSearchTransport {
+        private final JacksonJsonpMapper jsonpMapper = new JacksonJsonpMapper();
+        private final Map<String, String> schemaHashes = new HashMap<>();
+        private final Map<String, Set<String>> aliases = new HashMap<>();
+        private final Set<String> writeBlocked = new HashSet<>();
+        private final List<String> requests = new CopyOnWriteArrayList<>();
+        private boolean failClones;
+
+        synchronized void createLegacyIndex(String index) {
+            schemaHashes.put(index, "");
+        }
+
+        synchronized void createIndex(String index, String hash) {
+            schemaHashes.put(index, hash);
+        }
+
+        synchronized void setSchemaHash(String index, String hash) {
+            schemaHashes.put(index, hash);
+        }
+
+        synchronized String schemaHash(String index) {
+            return schemaHashes.get(index);
+        }
+
+        synchronized void setWriteBlocked(String index) {
+            writeBlocked.add(index);
+        }
+
+        synchronized void failClones() {
+            failClones = true;
+        }
+
+        synchronized boolean indexExists(String index) {
+            return schemaHashes.containsKey(index);
+        }
+
+        synchronized boolean isWriteBlocked(String index) {
+            return writeBlocked.contains(index);
+        }
+
+        synchronized Set<String> aliasTargets(String alias) {
+            return new TreeSet<>(aliases.getOrDefault(alias, Set.of()));
+        }
+
+        List<String> requests() {
+            return List.copyOf(requests);
+        }
+
+        /**
+         * Requests that touch the given alias or one of its indices, so the other managed indices do not interfere.
+         */
+        List<String> requestsFor(String alias) {
+            Pattern name = Pattern.compile("(^|[ :+x-])" + Pattern.quote(alias) + "(_v\\d+)?([ :=]|$)");
+            return requests.stream()
+                    .filter(request -> name.matcher(request).find())
+                    .collect(Collectors.toList());
+        }
+
+        void clearRequests() {
+            requests.clear();
+        }
+
+        /**
+         * Waits until the alias points at the target and the catch-up reindex after the alias switch has run.
+         */
+        void awaitMigration(String alias, String target) {
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (!migrated(alias, target)) {
+                if (System.nanoTime() > deadline) {
+                    throw new AssertionError("Migration of " + alias + " to " + target + " did not finish, requests: " + requests);
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new AssertionError(e);
+                }
+            }
+        }
+
+        private boolean migrated(String alias, String target) {
+            List<String> aliasRequests = requestsFor(alias);
+            return aliasTargets(alias).equals(Set.of(target))
+                    && aliasRequests.get(aliasRequests.size() - 1).matches("reindex .* -> " + Pattern.quote(target));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+                RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+            try {
+                Object response = handle(request);
+                if (response instanceof String json) {
+                    response = ((JsonEndpoint<RequestT, ResponseT, ErrorT>) endpoint).responseDeserializer()
+                            .deserialize(jsonpMapper.jsonProvider().createParser(new StringReader(json)), jsonpMapper);
+                }
+                return CompletableFuture.completedFuture((ResponseT) response);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        private synchronized Object handle(Object request) {
+            if (request instanceof ExistsAliasRequest existsAlias) {
+                return new BooleanResponse(!aliasTargets(existsAlias.name().get(0)).isEmpty());
+            }
+            if (request instanceof ExistsRequest exists) {
+                String name = exists.index().get(0);
+                return new BooleanResponse(indexExists(name) || !aliasTargets(name).isEmpty());
+            }
+            if (request instanceof GetAliasRequest getAlias) {
+                String alias = getAlias.name().get(0);
+                return aliasTargets(alias).stream()
+                        .map(index -> "\"" + index + "\":{\"aliases\":{\"" + alias + "\":{}}}")
+                        .collect(Collectors.joining(",", "{", "}"));
+            }
+            if (request instanceof GetMappingRequest getMapping) {
+                String index = getMapping.index().get(0);
+                String hash = schemaHashes.get(index);
+                return "{\"" + index + "\":{\"mappings\":" + (hash.isEmpty() ? "{}" : "{\"_meta\":{\"schema_hash\":\"" + hash + "\"}}") + "}}";
+            }
+            if (request instanceof DeleteIndexRequest delete) {
+                String index = delete.index().get(0);
+                requests.add("delete " + index);
+                schemaHashes.remove(index);
+                writeBlocked.remove(index);
+                aliases.values().forEach(indices -> indices.remove(index));
+                return "{\"acknowledged\":true}";
+            }
+            if (request instanceof CreateIndexRequest create) {
+                return create(create);
+            }
+            if (request instanceof CloneIndexRequest clone) {
+                return clone(clone);
+            }
+            if (request instanceof PutIndicesSettingsRequest putSettings) {
+                return putSettings(putSettings);
+            }
+            if (request instanceof UpdateAliasesRequest updateAliases) {
+                return updateAliases(updateAliases);
+            }
+            if (request instanceof ReindexRequest reindex) {
+                requests.add("reindex " + reindex.source().index().get(0) + " -> " + reindex.dest().index());
+                return "{\"task\":\"node:" + requests.size() + "\"}";
+            }
+            if (request instanceof GetTasksRequest) {
+                return "{\"completed\":true,\"task\":{\"action\":\"indices:data/write/reindex\",\"cancellable\":true,\"id\":1,"
+                        + "\"node\":\"node\",\"running_time_in_nanos\":0,\"start_time_in_millis\":0,\"type\":\"transport\",\"headers\":{}}}";
+            }
+            if (request instanceof PutScriptRequest) {
+                requests.add("put script");
+                return "{\"acknowledged\":true}";
+            }
+            throw new UnsupportedOperationException("Unexpected request " + request.getClass().getSimpleName());
+        }
+
+        private String create(CreateIndexRequest create) {
+            String index = create.index();
+            if (indexExists(index)) {
+                throw new IllegalStateException("resource_already_exists_exception: " + index);
+            }
+            requests.add("create " + index);
+            JsonData hash = create.mappings().meta().get("schema_hash");
+            schemaHashes.put(index, hash.to(String.class, jsonpMapper));
+            create.aliases().keySet().forEach(alias -> aliases.computeIfAbsent(alias, ignored -> new HashSet<>()).add(index));
+            return "{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\"" + index + "\"}";
+        }
+
+        private String clone(CloneIndexRequest clone) {
+            String source = clone.index();
+            String target = clone.target();
+            if (failClones) {
+                throw new IllegalStateException("clone failed");
+            }
+            if (!writeBlocked.contains(source)) {
+                throw new IllegalStateException("index " + source + " must be read-only to clone");
+            }
+            requests.add("clone " + source + " -> " + target);
+            schemaHashes.put(target, schemaHashes.get(source));
+            JsonData targetBlock = clone.settings().get("index.blocks.write");
+            if (targetBlock == null || targetBlock.to(Boolean.class, jsonpMapper)) {
+                writeBlocked.add(target);
+            }
+            return "{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\"" + target + "\"}";
+        }
+
+        private String putSettings(PutIndicesSettingsRequest putSettings) {
+            String index = putSettings.index().get(0);
+            IndexSettings settings = putSettings.settings().index() != null ? putSettings.settings().index() : putSettings.settings();
+            if (settings.blocks() != null && settings.blocks().write() != null) {
+                requests.add("write block " + index + "=" + settings.blocks().write());
+                if (settings.blocks().write()) {
+                    writeBlocked.add(index);
+                } else {
+                    writeBlocked.remove(index);
+                }
+            } else {
+                requests.add("settings " + index);
+            }
+            return "{\"acknowledged\":true}";
+        }
+
+        /**
+         * Applies all actions or none, like the real alias API.
+         */
+        private String updateAliases(UpdateAliasesRequest updateAliases) {
+            Map<String, Set<String>> updated = new HashMap<>();
+            aliases.forEach((alias, indices) -> updated.put(alias, new HashSet<>(indices)));
+            Set<String> removedIndices = new HashSet<>();
+            List<String> summary = new ArrayList<>();
+            for (Action action : updateAliases.actions()) {
+                if (action.isRemoveIndex()) {
+                    String index = action.removeIndex().index();
+                    removedIndices.add(index);
+                    updated.values().forEach(indices -> indices.remove(index));
+                    summary.add("x" + index);
+                } else if (action.isAdd()) {
+                    String index = action.add().index();
+                    if (!indexExists(index) || removedIndices.contains(index)) {
+                        throw new IllegalStateException("index_not_found_exception: " + index);
+                    }
+                    updated.computeIfAbsent(action.add().alias(), ignored -> new HashSet<>()).add(index);
+                    summary.add("+" + index + ":" + action.add().alias());
+                } else if (action.isRemove()) {
+                    updated.getOrDefault(action.remove().alias(), new HashSet<>()).remove(action.remove().index());
+                    summary.add("-" + action.remove().index() + ":" + action.remove().alias());
+                }
+            }
+            for (String alias : updated.keySet()) {
+                if (!removedIndices.contains(alias) && indexExists(alias) && !updated.get(alias).isEmpty()) {
+                    throw new IllegalStateException("invalid_alias_name_exception: an index exists with the same name as the alias " + alias);
+                }
+            }
+            removedIndices.forEach(index -> {
+                schemaHashes.remove(index);
+                writeBlocked.remove(index);
+            });
+            aliases.clear();
+            aliases.putAll(updated);
+            requests.add("aliases " + String.join(" ", summary));
+            return "{\"acknowledged\":true}";
+        }
+
+        @Override
+        public <RequestT, ResponseT, ErrorT> ResponseT performRequest(
+                RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+            return performRequestAsync(request, endpoint, options).join();
+        }
+
+        @Override
+        public JacksonJsonpMapper jsonpMapper() {
+            return jsonpMapper;
+        }
+
+        @Override
+        public TransportOptions options() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
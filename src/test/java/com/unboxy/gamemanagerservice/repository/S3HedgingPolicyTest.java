@@ -0,0 +1,150 @@
+package com.unboxy.gamemanagerservice.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class S3HedgingPolicyTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration SLOW = Duration.ofMillis(500);
+    private static final int MIN_SAMPLES = 5;
+
+    private SimpleMeterRegistry meterRegistry;
+    private S3HedgingPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        policy = new S3HedgingPolicy(meterRegistry);
+        ReflectionTestUtils.setField(policy, "enabled", true);
+        ReflectionTestUtils.setField(policy, "percentile", 0.5);
+        ReflectionTestUtils.setField(policy, "minDelayMillis", 20L);
+        ReflectionTestUtils.setField(policy, "minSamples", (long) MIN_SAMPLES);
+        ReflectionTestUtils.setField(policy, "budgetRatio", 1.0);
+        ReflectionTestUtils.setField(policy, "maxBurst", 10L);
+        policy.init();
+    }
+
+    @Test
+    void noBackupBeforeEnoughLatencySamples() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(policy.execute(() -> slowThenFast(calls)))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(1);
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    void backupIsSentOnceTheThresholdPassesAndTheFasterResponseWins() {
+        warmUp();
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(policy.execute(() -> slowThenFast(calls)))
+                .expectNext("backup")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(2);
+        assertThat(hedges("sent")).isEqualTo(1);
+        assertThat(hedges("won")).isEqualTo(1);
+    }
+
+    @Test
+    void fastPrimaryNeverSendsABackup() {
+        warmUp();
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(policy.execute(() -> {
+                    calls.incrementAndGet();
+                    return Mono.just("primary");
+                }))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(1);
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    void losingPrimaryIsCancelled() {
+        warmUp();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+        StepVerifier.create(policy.execute(() -> calls.incrementAndGet() == 1
+                        ? Mono.<String>never().doOnCancel(() -> primaryCancelled.set(true))
+                        : Mono.just("backup")))
+                .expectNext("backup")
+                .verifyComplete();
+
+        assertThat(primaryCancelled).isTrue();
+    }
+
+    @Test
+    void backupsAreLimitedByTheTokenBudget() {
+        // Half a token per request and a burst of one: after the first hedge the budget needs two more requests
+        ReflectionTestUtils.setField(policy, "budgetRatio", 0.5);
+        ReflectionTestUtils.setField(policy, "maxBurst", 1L);
+        warmUp();
+
+        AtomicInteger firstCalls = new AtomicInteger();
+        StepVerifier.create(policy.execute(() -> slowThenFast(firstCalls)))
+                .expectNext("backup")
+                .verifyComplete();
+
+        AtomicInteger secondCalls = new AtomicInteger();
+        StepVerifier.create(policy.execute(() -> slowThenFast(secondCalls)))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertThat(firstCalls).hasValue(2);
+        assertThat(secondCalls).hasValue(1);
+        assertThat(hedges("sent")).isEqualTo(1);
+        assertThat(hedges("budget_exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void disabledPolicyCallsOnce() {
+        ReflectionTestUtils.setField(policy, "enabled", false);
+        warmUp();
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(policy.execute(() -> slowThenFast(calls)))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(1);
+    }
+
+    /**
+     * Enough instant responses for the percentile to settle at the minimum delay.
+     */
+    private void warmUp() {
+        IntStream.range(0, MIN_SAMPLES).forEach(i -> policy.execute(() -> Mono.just("warm-up")).block(TIMEOUT));
+    }
+
+    /**
+     * The first call answers after {@link #SLOW}, any backup immediately.
+     */
+    private static Mono<String> slowThenFast(AtomicInteger calls) {
+        return calls.incrementAndGet() == 1
+                ? Mono.delay(SLOW).thenReturn("primary")
+                : Mono.just("backup");
+    }
+
+    private double hedges(String outcome) {
+        return meterRegistry.counter("s3.get.hedges", "outcome", outcome).count();
+    }
+}
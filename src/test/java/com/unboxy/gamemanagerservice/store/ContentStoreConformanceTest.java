@@ -0,0 +1,212 @@
+package com.unboxy.gamemanagerservice.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Behaviour every {@link ContentStore} implementation must share. Subclasses only provide the store.
+ */
+abstract class ContentStoreConformanceTest {
+    private static final Logger log = LoggerFactory.getLogger(ContentStoreConformanceTest.class);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int THROUGHPUT_OBJECTS = 200;
+    private static final int THROUGHPUT_OBJECT_SIZE = 16 * 1024;
+    private static final int THROUGHPUT_CONCURRENCY = 32;
+
+    protected ContentStore store;
+    protected String prefix;
+
+    protected abstract ContentStore createStore() throws Exception;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = createStore();
+        prefix = "conformance/" + UUID.randomUUID() + "/";
+    }
+
+    @Test
+    void putThenGetReturnsSameBytes() {
+        byte[] content = "<html>hello</html>".getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer result = store.put(prefix + "index.html", content, ContentAttributes.of("text/html"))
+                .then(store.get(prefix + "index.html"))
+                .block(TIMEOUT);
+
+        assertThat(toBytes(result)).isEqualTo(content);
+    }
+
+    @Test
+    void getReturnsReadOnlyIndependentViews() {
+        byte[] content = "shared".getBytes(StandardCharsets.UTF_8);
+        store.put(prefix + "a.txt", content, ContentAttributes.of("text/plain")).block(TIMEOUT);
+
+        ByteBuffer first = store.get(prefix + "a.txt").block(TIMEOUT);
+        ByteBuffer second = store.get(prefix + "a.txt").block(TIMEOUT);
+        first.get(new byte[first.remaining()]);
+
+        assertThat(first.isReadOnly()).isTrue();
+        assertThat(toBytes(second)).isEqualTo(content);
+    }
+
+    @Test
+    void putOverwritesExistingObject() {
+        store.put(prefix + "a.txt", bytes("one"), ContentAttributes.of("text/plain")).block(TIMEOUT);
+        store.put(prefix + "a.txt", bytes("two"), ContentAttributes.of("text/plain")).block(TIMEOUT);
+
+        assertThat(toBytes(store.get(prefix + "a.txt").block(TIMEOUT))).isEqualTo(bytes("two"));
+    }
+
+    @Test
+    void conditionalPutOnlyWritesOverTheVersionThatWasRead() {
+        String key = prefix + "manifest.json";
+        store.putIfVersion(key, bytes("one"), ContentAttributes.of("application/json"), null).block(TIMEOUT);
+        VersionedContent first = store.getVersioned(key).block(TIMEOUT);
+
+        store.putIfVersion(key, bytes("two"), ContentAttributes.of("application/json"), first.version()).block(TIMEOUT);
+
+        StepVerifier.create(store.putIfVersion(key, bytes("stale"), ContentAttributes.of("application/json"), first.version()))
+                .expectError(ContentVersionConflictException.class)
+                .verify(TIMEOUT);
+        StepVerifier.create(store.putIfVersion(key, bytes("create"), ContentAttributes.of("application/json"), null))
+                .expectError(ContentVersionConflictException.class)
+                .verify(TIMEOUT);
+        assertThat(toBytes(store.getVersioned(key).block(TIMEOUT).content())).isEqualTo(bytes("two"));
+    }
+
+    @Test
+    void streamingPutAndStreamRoundTrip() {
+        byte[] content = randomBytes(300 * 1024);
+        Flux<DataBuffer> body = Flux.range(0, 3)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(content, i * 100 * 1024, (i + 1) * 100 * 1024)));
+
+        store.put(prefix + "blob.bin", body, content.length, ContentAttributes.immutable("application/octet-stream")).block(TIMEOUT);
+
+        byte[] streamed = DataBufferUtils.join(store.stream(prefix + "blob.bin"))
+                .map(dataBuffer -> {
+                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
+                    dataBuffer.read(bytes);
+                    DataBufferUtils.release(dataBuffer);
+                    return bytes;
+                })
+                .block(TIMEOUT);
+
+        assertThat(streamed).isEqualTo(content);
+    }
+
+    @Test
+    void missingKeyFailsWithContentNotFound() {
+        StepVerifier.create(store.get(prefix + "missing.html"))
+                .expectError(ContentNotFoundException.class)
+                .verify(TIMEOUT);
+        StepVerifier.create(store.stream(prefix + "missing.html"))
+                .expectError(ContentNotFoundException.class)
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void existsReflectsPutAndDelete() {
+        String key = prefix + "exists.txt";
+        assertThat(store.exists(key).block(TIMEOUT)).isFalse();
+
+        store.put(key, bytes("x"), ContentAttributes.of("text/plain")).block(TIMEOUT);
+        assertThat(store.exists(key).block(TIMEOUT)).isTrue();
+
+        assertThat(store.delete(List.of(key)).block(TIMEOUT)).isEqualTo(1);
+        assertThat(store.exists(key).block(TIMEOUT)).isFalse();
+    }
+
+    @Test
+    void listReturnsAllKeysUnderPrefixOnly() {
+        Flux.just("game/index.html", "game/revisions/abc/index.html", "game/revisions/abc/game.js", "other/index.html")
+                .concatMap(name -> store.put(prefix + name, bytes(name), ContentAttributes.of("text/plain")))
+                .blockLast(TIMEOUT);
+
+        List<String> keys = store.list(prefix + "game/").collectList().block(TIMEOUT);
+
+        assertThat(keys).containsExactlyInAnyOrder(
+                prefix + "game/index.html",
+                prefix + "game/revisions/abc/index.html",
+                prefix + "game/revisions/abc/game.js");
+    }
+
+    @Test
+    void copyDuplicatesContent() {
+        store.put(prefix + "source.txt", bytes("copy me"), ContentAttributes.of("text/plain")).block(TIMEOUT);
+
+        store.copy(prefix + "source.txt", prefix + "target/copied.txt").block(TIMEOUT);
+
+        assertThat(toBytes(store.get(prefix + "target/copied.txt").block(TIMEOUT))).isEqualTo(bytes("copy me"));
+        assertThat(store.exists(prefix + "source.txt").block(TIMEOUT)).isTrue();
+    }
+
+    @Test
+    void deleteRejectsOversizedBatch() {
+        List<String> keys = IntStream.range(0, ContentStore.MAX_DELETE_BATCH + 1).mapToObj(i -> prefix + i).toList();
+
+        assertThrows(IllegalArgumentException.class, () -> store.delete(keys).block(TIMEOUT));
+    }
+
+    @Test
+    void concurrentPutAndGetThroughput() {
+        byte[] content = randomBytes(THROUGHPUT_OBJECT_SIZE);
+        long start = System.nanoTime();
+
+        long verified = Flux.range(0, THROUGHPUT_OBJECTS)
+                .flatMap(i -> store.put(prefix + "load/" + i, content, ContentAttributes.of("application/octet-stream")).thenReturn(i),
+                        THROUGHPUT_CONCURRENCY)
+                .flatMap(i -> store.get(prefix + "load/" + i), THROUGHPUT_CONCURRENCY)
+                .filter(buffer -> Arrays.equals(toBytes(buffer), content))
+                .count()
+                .block(TIMEOUT);
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        double megabytes = 2.0 * THROUGHPUT_OBJECTS * THROUGHPUT_OBJECT_SIZE / (1024 * 1024);
+        log.info("{}: {} objects written and read in {}s ({} MB/s)", store.getClass().getSimpleName(), THROUGHPUT_OBJECTS,
+                String.format("%.2f", seconds), String.format("%.1f", megabytes / seconds));
+
+        assertThat(verified).isEqualTo(THROUGHPUT_OBJECTS);
+
+        Integer deleted = store.list(prefix + "load/")
+                .buffer(ContentStore.MAX_DELETE_BATCH)
+                .concatMap(store::delete)
+                .reduce(0, Integer::sum)
+                .block(TIMEOUT);
+        assertThat(deleted).isEqualTo(THROUGHPUT_OBJECTS);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return bytes;
+    }
+}
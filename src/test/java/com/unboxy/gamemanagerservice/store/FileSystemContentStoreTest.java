@@ -0,0 +1,23 @@
+package com.unboxy.gamemanagerservice.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileSystemContentStoreTest extends ContentStoreConformanceTest {
+    @TempDir
+    Path root;
+
+    @Override
+    protected ContentStore createStore() {
+        return new FileSystemContentStore(root.toString(), "http://localhost:8080/content/");
+    }
+
+    @Test
+    void rejectsKeysOutsideRoot() {
+        assertThrows(IllegalArgumentException.class, () -> store.exists("../escape.txt").block());
+    }
+}
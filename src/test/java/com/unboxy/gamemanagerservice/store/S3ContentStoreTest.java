@@ -0,0 +1,23 @@
+package com.unboxy.gamemanagerservice.store;
+
+import com.unboxy.gamemanagerservice.repository.S3HedgingPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+/**
+ * Runs the conformance suite against a real bucket; set CONTENT_STORE_TEST_BUCKET (and AWS credentials) to enable.
+ */
+@EnabledIfEnvironmentVariable(named = "CONTENT_STORE_TEST_BUCKET", matches = ".+")
+class S3ContentStoreTest extends ContentStoreConformanceTest {
+
+    @Override
+    protected ContentStore createStore() {
+        S3AsyncClient client = S3AsyncClient.builder()
+                .region(Region.of(System.getenv().getOrDefault("AWS_DEFAULT_REGION", "us-east-1")))
+                .build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new S3ContentStore(client, meterRegistry, new S3HedgingPolicy(meterRegistry), System.getenv("CONTENT_STORE_TEST_BUCKET"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.unboxy.gamemanagerservice.utils;
+
+import com.unboxy.gamemanagerservice.model.LogicalOperatorType;
+import com.unboxy.gamemanagerservice.model.Query;
+import com.unboxy.gamemanagerservice.model.QueryClause;
+import com.unboxy.gamemanagerservice.model.SearchCriteria;
+import com.unboxy.gamemanagerservice.model.SearchOperatorType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchCriteriaKeysTest {
+
+    @Test
+    void orderOfQueriesClausesAndSetValuesDoesNotMatter() {
+        QueryClause status = new QueryClause("gameStatus", SearchOperatorType.EQ, "PUBLISHED");
+        QueryClause types = new QueryClause("gameType", SearchOperatorType.IN, "puzzle,arcade,racing");
+        QueryClause tags = new QueryClause("tags", SearchOperatorType.EQALL, "retro,2d");
+        QueryClause owner = new QueryClause("userId", SearchOperatorType.EQ, "user-1");
+
+        SearchCriteria criteria = criteria(LogicalOperatorType.AND,
+                new Query(LogicalOperatorType.AND, List.of(status, types)),
+                new Query(LogicalOperatorType.OR, List.of(tags, owner)));
+        SearchCriteria reordered = criteria(LogicalOperatorType.AND,
+                new Query(LogicalOperatorType.OR, List.of(owner, new QueryClause("tags", SearchOperatorType.EQALL, "2d,retro"))),
+                new Query(LogicalOperatorType.AND, List.of(new QueryClause("gameType", SearchOperatorType.IN, "racing,puzzle,arcade"), status)));
+
+        assertThat(SearchCriteriaKeys.filterKey(reordered)).isEqualTo(SearchCriteriaKeys.filterKey(criteria));
+        assertThat(SearchCriteriaKeys.resultKey(reordered)).isEqualTo(SearchCriteriaKeys.resultKey(criteria));
+    }
+
+    @Test
+    void orderOfValuesMattersForOtherOperators() {
+        SearchCriteria first = criteria(LogicalOperatorType.AND,
+                new Query(LogicalOperatorType.AND, List.of(new QueryClause("title", SearchOperatorType.EQ, "a,b"))));
+        SearchCriteria second = criteria(LogicalOperatorType.AND,
+                new Query(LogicalOperatorType.AND, List.of(new QueryClause("title", SearchOperatorType.EQ, "b,a"))));
+
+        assertThat(SearchCriteriaKeys.filterKey(first)).isNotEqualTo(SearchCriteriaKeys.filterKey(second));
+    }
+
+    @Test
+    void valuesContainingSeparatorsDoNotCollide() {
+        // Plain concatenation would turn both into "aEQbEQc"
+        SearchCriteria first = criteria(LogicalOperatorType.AND,
+                new Query(LogicalOperatorType.AND, List.of(new QueryClause("aEQb", SearchOperatorType.EQ, "c"))));
+        SearchCriteria second = criteria(LogicalOperatorType.AND,
+                new Query(LogicalOperatorType.AND, List.of(new QueryClause("a", SearchOperatorType.EQ, "bEQc"))));
+
+        assertThat(SearchCriteriaKeys.filterKey(first)).isNotEqualTo(SearchCriteriaKeys.filterKey(second));
+    }
+
+    @Test
+    void clausesAreNotMergedAcrossQueries() {
+        QueryClause x = new QueryClause("gameType", SearchOperatorType.EQ, "puzzle");
+        QueryClause y = new QueryClause("gameStatus", SearchOperatorType.EQ, "PUBLISHED");
+
+        SearchCriteria oneQuery = criteria(LogicalOperatorType.AND, new Query(LogicalOperatorType.AND, List.of(x, y)));
+        SearchCriteria twoQueries = criteria(LogicalOperatorType.AND,
+                new Query(LogicalOperatorType.AND, List.of(x)),
+                new Query(LogicalOperatorType.AND, List.of(y)));
+
+        assertThat(SearchCriteriaKeys.filterKey(oneQuery)).isNotEqualTo(SearchCriteriaKeys.filterKey(twoQueries));
+    }
+
+    @Test
+    void operatorsAreNormalizedLikeTheQueryBuilder() {
+        Query query = new Query(LogicalOperatorType.OR, List.of(new QueryClause("gameType", SearchOperatorType.EQ, "puzzle")));
+
+        assertThat(SearchCriteriaKeys.filterKey(criteria(null, query)))
+                .isEqualTo(SearchCriteriaKeys.filterKey(criteria(LogicalOperatorType.OR, query)))
+                .isNotEqualTo(SearchCriteriaKeys.filterKey(criteria(LogicalOperatorType.AND, query)));
+    }
+
+    @Test
+    void resultKeyCoversTextAndPaging() {
+        SearchCriteria criteria = criteria(LogicalOperatorType.AND);
+        criteria.setSearchText("space");
+        criteria.setPageNumber(0);
+        criteria.setPageSize(20);
+
+        SearchCriteria nextPage = criteria(LogicalOperatorType.AND);
+        nextPage.setSearchText("space");
+        nextPage.setPageNumber(1);
+        nextPage.setPageSize(20);
+
+        assertThat(SearchCriteriaKeys.resultKey(criteria)).isNotEqualTo(SearchCriteriaKeys.resultKey(nextPage));
+        assertThat(SearchCriteriaKeys.filterKey(criteria)).isEqualTo(SearchCriteriaKeys.filterKey(nextPage)).isEmpty();
+    }
+
+    private static SearchCriteria criteria(LogicalOperatorType operator, Query... queries) {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setQueryOperator(operator);
+        criteria.setQueries(List.of(queries));
+        return criteria;
+    }
+}
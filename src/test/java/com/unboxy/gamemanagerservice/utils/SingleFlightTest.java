@@ -0,0 +1,100 @@
+package com.unboxy.gamemanagerservice.utils;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneLoad() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger leaders = new AtomicInteger();
+        AtomicInteger followers = new AtomicInteger();
+
+        Mono<String> first = singleFlight.execute("key", () -> load(loads, upstream.asMono()), leaders::incrementAndGet, followers::incrementAndGet).cache();
+        Mono<String> second = singleFlight.execute("key", () -> load(loads, upstream.asMono()), leaders::incrementAndGet, followers::incrementAndGet).cache();
+        first.subscribe();
+        second.subscribe();
+
+        assertThat(singleFlight.inFlightCount()).isEqualTo(1);
+        upstream.tryEmitValue("value");
+
+        StepVerifier.create(first).expectNext("value").verifyComplete();
+        StepVerifier.create(second).expectNext("value").verifyComplete();
+        assertThat(loads).hasValue(1);
+        assertThat(leaders).hasValue(1);
+        assertThat(followers).hasValue(1);
+    }
+
+    @Test
+    void completedLoadIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("key", () -> load(loads, Mono.just("one"))).block(TIMEOUT);
+        String second = singleFlight.execute("key", () -> load(loads, Mono.just("two"))).block(TIMEOUT);
+
+        assertThat(second).isEqualTo("two");
+        assertThat(loads).hasValue(2);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void failedLoadIsEvictedAndRetriedByTheNextCaller() {
+        AtomicInteger loads = new AtomicInteger();
+
+        StepVerifier.create(singleFlight.execute("key", () -> load(loads, Mono.error(new IllegalStateException("boom")))))
+                .expectError(IllegalStateException.class)
+                .verify(TIMEOUT);
+        assertThat(singleFlight.inFlightCount()).isZero();
+
+        StepVerifier.create(singleFlight.execute("key", () -> load(loads, Mono.just("recovered"))))
+                .expectNext("recovered")
+                .verifyComplete();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void lateJoinerGetsTheResultAfterTheFirstCallerCancelled() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+
+        Disposable first = singleFlight.execute("key", () -> load(loads, upstream.asMono())).subscribe();
+        first.dispose();
+        Mono<String> lateJoiner = singleFlight.execute("key", () -> load(loads, Mono.just("second load"))).cache();
+        lateJoiner.subscribe();
+
+        upstream.tryEmitValue("value");
+
+        StepVerifier.create(lateJoiner).expectNext("value").verifyComplete();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void differentKeysLoadIndependently() {
+        AtomicInteger loads = new AtomicInteger();
+
+        String a = singleFlight.execute("a", () -> load(loads, Mono.just("A"))).block(TIMEOUT);
+        String b = singleFlight.execute("b", () -> load(loads, Mono.just("B"))).block(TIMEOUT);
+
+        assertThat(a).isEqualTo("A");
+        assertThat(b).isEqualTo("B");
+        assertThat(loads).hasValue(2);
+    }
+
+    private static Mono<String> load(AtomicInteger loads, Mono<String> result) {
+        loads.incrementAndGet();
+        return result;
+    }
+}